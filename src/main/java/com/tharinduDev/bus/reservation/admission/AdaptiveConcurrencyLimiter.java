@@ -0,0 +1,52 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD concurrency limit: grows by one while requests finish within the latency target and the limit is
+// actually being used, and shrinks multiplicatively as soon as a request is slower than the target.
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(initialLimit, maxLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (latencyNanos > latencyTargetNanos) {
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+        } else if (inFlightBeforeRelease * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
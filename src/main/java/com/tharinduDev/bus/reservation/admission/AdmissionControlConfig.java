@@ -0,0 +1,44 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+@ConditionalOnProperty(name = "reservation.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter(AdmissionControlProperties properties) {
+        return new ClientRateLimiter(properties.ratePerSecond(), properties.burst(), properties.maxTrackedClients(),
+                properties.clients());
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(AdmissionControlProperties properties) {
+        return new AdaptiveConcurrencyLimiter(properties.initialConcurrencyLimit(), properties.minConcurrencyLimit(),
+                properties.maxConcurrencyLimit(), properties.latencyTarget().toNanos());
+    }
+
+    @Bean
+    public AdmissionRejectionReporter admissionRejectionReporter(MeterRegistry meterRegistry) {
+        return new AdmissionRejectionReporter(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(ClientRateLimiter clientRateLimiter,
+                                                                                AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                                                                AdmissionControlProperties properties,
+                                                                                MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(clientRateLimiter, concurrencyLimiter, properties.clientHeader(), meterRegistry));
+        registration.addUrlPatterns("/api/v1/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
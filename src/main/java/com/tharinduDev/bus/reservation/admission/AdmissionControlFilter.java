@@ -0,0 +1,109 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Rejects requests with 429 + Retry-After before they reach the controllers, first by per-client rate,
+// then by the adaptive concurrency limit. Rejection bodies and header values are precomputed so the
+// rejection path does not allocate per request.
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final byte[] RATE_LIMITED_BODY =
+            "{\"status\":429,\"message\":\"Too many requests, please retry later\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OVERLOADED_BODY =
+            "{\"status\":429,\"message\":\"Service is at capacity, please retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    static final String REJECTED_METER = "reservation.admission.rejected";
+    static final String RATE_LIMIT_REASON = "rate-limit";
+    static final String CONCURRENCY_LIMIT_REASON = "concurrency-limit";
+
+    private static final int MAX_RETRY_AFTER_SECONDS = 60;
+    private static final String[] RETRY_AFTER_VALUES = new String[MAX_RETRY_AFTER_SECONDS + 1];
+
+    static {
+        for (int i = 0; i <= MAX_RETRY_AFTER_SECONDS; i++) {
+            RETRY_AFTER_VALUES[i] = Integer.toString(i);
+        }
+    }
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final String clientHeader;
+    private final Counter rateLimitedRequests;
+    private final Counter overloadedRequests;
+
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                  String clientHeader, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientHeader = clientHeader;
+        this.rateLimitedRequests = rejectedCounter(meterRegistry, RATE_LIMIT_REASON);
+        this.overloadedRequests = rejectedCounter(meterRegistry, CONCURRENCY_LIMIT_REASON);
+        meterRegistry.gauge("reservation.admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("reservation.admission.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight);
+        meterRegistry.gauge("reservation.admission.clients.tracked", rateLimiter, ClientRateLimiter::trackedClients);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            rateLimitedRequests.increment();
+            reject(response, RATE_LIMITED_BODY, retryAfterSeconds(waitNanos));
+            return;
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloadedRequests.increment();
+            reject(response, OVERLOADED_BODY, 1);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(REJECTED_METER)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(clientHeader);
+        return apiKey != null ? apiKey : request.getRemoteAddr();
+    }
+
+    private static int retryAfterSeconds(long waitNanos) {
+        long seconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        return (int) Math.min(seconds, MAX_RETRY_AFTER_SECONDS);
+    }
+
+    private static void reject(HttpServletResponse response, byte[] body, int retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_VALUES[retryAfterSeconds]);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,27 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Off unless enabled. clients maps an API key (or client IP) to its own rate, for partners whose traffic is
+// known to exceed the default per-client rate; configured clients do not count towards max-tracked-clients.
+@ConfigurationProperties(prefix = "reservation.admission")
+public record AdmissionControlProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("50") double ratePerSecond,
+        @DefaultValue("100") int burst,
+        @DefaultValue("X-API-Key") String clientHeader,
+        @DefaultValue("10000") int maxTrackedClients,
+        @DefaultValue Map<String, ClientRate> clients,
+        @DefaultValue("20") int initialConcurrencyLimit,
+        @DefaultValue("4") int minConcurrencyLimit,
+        @DefaultValue("200") int maxConcurrencyLimit,
+        @DefaultValue("250ms") Duration latencyTarget) {
+
+    public record ClientRate(
+            @DefaultValue("50") double ratePerSecond,
+            @DefaultValue("100") int burst) { }
+}
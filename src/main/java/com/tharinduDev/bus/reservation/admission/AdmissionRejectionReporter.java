@@ -0,0 +1,37 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+// Rejections are not logged one by one; this WARN summary is never sampled, so it stays complete
+// whatever happens to the per-request logs.
+@Slf4j
+public class AdmissionRejectionReporter {
+
+    private final Counter rateLimitedRequests;
+    private final Counter overloadedRequests;
+    // owned by the scheduler thread
+    private double reportedRateLimited;
+    private double reportedOverloaded;
+
+    public AdmissionRejectionReporter(MeterRegistry meterRegistry) {
+        this.rateLimitedRequests = AdmissionControlFilter.rejectedCounter(meterRegistry, AdmissionControlFilter.RATE_LIMIT_REASON);
+        this.overloadedRequests = AdmissionControlFilter.rejectedCounter(meterRegistry, AdmissionControlFilter.CONCURRENCY_LIMIT_REASON);
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.admission.summary-interval:10s}")
+    public void report() {
+        double rateLimited = rateLimitedRequests.count();
+        double overloaded = overloadedRequests.count();
+        long newRateLimited = (long) (rateLimited - reportedRateLimited);
+        long newOverloaded = (long) (overloaded - reportedOverloaded);
+        if (newRateLimited + newOverloaded > 0) {
+            log.warn("Admission control rejected {} requests since the last summary: {} over the client rate, {} over the concurrency limit",
+                    newRateLimited + newOverloaded, newRateLimited, newOverloaded);
+        }
+        reportedRateLimited = rateLimited;
+        reportedOverloaded = overloaded;
+    }
+}
@@ -0,0 +1,60 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// One token bucket per API key or client IP, at the client's own rate when one is configured. At most
+// maxTrackedClients unconfigured clients get their own bucket; once idle ones cannot be evicted to make room,
+// further new clients share a single overflow bucket, so a spray of keys or addresses neither grows the map
+// nor gets more than one client's rate between them.
+public class ClientRateLimiter {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxTrackedClients;
+    private final Map<String, AdmissionControlProperties.ClientRate> clientRates;
+    private final TokenBucket overflow;
+
+    public ClientRateLimiter(double permitsPerSecond, int burst, int maxTrackedClients) {
+        this(permitsPerSecond, burst, maxTrackedClients, Map.of());
+    }
+
+    public ClientRateLimiter(double permitsPerSecond, int burst, int maxTrackedClients,
+                             Map<String, AdmissionControlProperties.ClientRate> clientRates) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxTrackedClients = maxTrackedClients;
+        this.clientRates = Map.copyOf(clientRates);
+        this.overflow = new TokenBucket(permitsPerSecond, burst, System.nanoTime());
+    }
+
+    // returns 0 when the request is admitted, otherwise the nanoseconds the client should wait
+    public long tryAcquire(String clientKey) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            AdmissionControlProperties.ClientRate clientRate = clientRates.get(clientKey);
+            if (clientRate != null) {
+                bucket = buckets.computeIfAbsent(clientKey,
+                        key -> new TokenBucket(clientRate.ratePerSecond(), clientRate.burst(), now));
+            } else if (buckets.size() < maxTrackedClients || evictIdleClients(now)) {
+                bucket = buckets.computeIfAbsent(clientKey, key -> new TokenBucket(permitsPerSecond, burst, now));
+            } else {
+                bucket = overflow;
+            }
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    public int trackedClients() {
+        return buckets.size();
+    }
+
+    // true when there is room for another client afterwards
+    private boolean evictIdleClients(long now) {
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        return buckets.size() < maxTrackedClients;
+    }
+}
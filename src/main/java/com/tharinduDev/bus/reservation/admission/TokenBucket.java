@@ -0,0 +1,38 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket implemented as a generic cell rate algorithm: the whole bucket state is a single
+// "theoretical arrival time", so acquiring a permit is one CAS and never blocks.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(burst, 1) - 1);
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    // returns 0 when a permit was taken, otherwise the nanoseconds until the next permit becomes available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrivalTime = theoreticalArrivalTime.get();
+            long waitNanos = arrivalTime - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            long nextArrivalTime = Math.max(arrivalTime, nowNanos) + emissionIntervalNanos;
+            if (theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime)) {
+                return 0;
+            }
+        }
+    }
+
+    // a bucket that has refilled completely carries no state worth keeping
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrivalTime.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,90 @@
+package com.tharinduDev.bus.reservation.controller;
+
+import com.tharinduDev.bus.reservation.datasource.PrimaryReads;
+import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.AvailabilitySearchReport;
+import com.tharinduDev.bus.reservation.dto.AvailabilitySearchRequest;
+import com.tharinduDev.bus.reservation.dto.ItinerarySearchReport;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.inventory.AvailabilityVersions;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import com.tharinduDev.bus.reservation.service.ItineraryService;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/availability")
+@Slf4j
+public class AvailabilityController {
+
+    private final ReservationService reservationService;
+    private final ItineraryService itineraryService;
+    private final AvailabilityVersions availabilityVersions;
+    private final CacheControl journeyCacheControl;
+
+    public AvailabilityController(ReservationService reservationService, ItineraryService itineraryService,
+                                  AvailabilityVersions availabilityVersions,
+                                  @Value("${reservation.availability.cache-max-age:2s}") Duration cacheMaxAge) {
+        this.reservationService = reservationService;
+        this.itineraryService = itineraryService;
+        this.availabilityVersions = availabilityVersions;
+        // the body depends only on the URL, not on who asks, so CDNs and reverse proxies may serve it to everyone
+        // for s-maxage and then revalidate it with the ETag like any client
+        this.journeyCacheControl = CacheControl.maxAge(cacheMaxAge).sMaxAge(cacheMaxAge).cachePublic().mustRevalidate();
+    }
+
+    // cacheable variant of POST /reservations/check-availability:
+    // GET /availability?origin=A&destination=C&passengerCount=2
+    @GetMapping
+    public ResponseEntity<AvailabilityReport> journeyAvailability(
+            @Valid @ModelAttribute TicketInquiry request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Received journey availability request: {} passengers from {} to {}",
+                request.getPassengerCount(), request.getOrigin(), request.getDestination());
+        long version = availabilityVersions.version(request.operatorOrDefault(),
+                SegmentMask.of(request.getOrigin(), request.getDestination()));
+        String etag = AvailabilityETag.of(request, version);
+        if (AvailabilityETag.matches(ifNoneMatch, etag)) {
+            log.info("Journey availability unchanged since {}", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(journeyCacheControl).build();
+        }
+        // from the replica once it has the writes the version counts
+        AvailabilityReport response = PrimaryReads.untilReplicated(version,
+                () -> reservationService.checkAvailability(request));
+        log.info("Journey availability completed: {} seats available", response.getAvailableSeats());
+        return ResponseEntity.ok().eTag(etag).cacheControl(journeyCacheControl).body(response);
+    }
+
+    @PostMapping("/search")
+    public ResponseEntity<AvailabilitySearchReport> searchAvailability(@Valid @RequestBody AvailabilitySearchRequest request) {
+        log.info("Received availability search request: {} passengers from {}",
+                request.getPassengerCount(), request.getOrigin());
+        AvailabilitySearchReport response = reservationService.searchAvailability(request);
+        log.info("Availability search completed: {} destinations", response.getDestinations().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/itineraries")
+    public ResponseEntity<ItinerarySearchReport> searchItineraries(@Valid @RequestBody TicketInquiry request) {
+        log.info("Received itinerary search request: {} passengers from {} to {}",
+                request.getPassengerCount(), request.getOrigin(), request.getDestination());
+        ItinerarySearchReport response = itineraryService.searchItineraries(request);
+        log.info("Itinerary search completed: {} options", response.getOptions().size());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tharinduDev.bus.reservation.controller;
+
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+// Entity tags for availability responses: the operator, the journey, the passenger count and the availability
+// version of the journey's segments, plus the representation when it is not JSON. Two operators serving the
+// same stops answer with different seats and prices, so their tags must never match.
+final class AvailabilityETag {
+
+    static final String CBOR = "cbor";
+
+    private AvailabilityETag() {
+    }
+
+    static String of(TicketInquiry request, long version) {
+        // operator ids are free text; URL-encoding keeps them to characters allowed inside an entity tag
+        String operator = URLEncoder.encode(request.operatorOrDefault(), StandardCharsets.UTF_8);
+        return "\"" + operator + "-" + request.getOrigin() + "-" + request.getDestination()
+                + "-" + request.getPassengerCount() + "-" + Long.toHexString(version) + "\"";
+    }
+
+    static String of(TicketInquiry request, long version, String representation) {
+        String etag = of(request, version);
+        return etag.substring(0, etag.length() - 1) + "-" + representation + "\"";
+    }
+
+    // If-None-Match uses weak comparison, and "*" matches any current representation
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
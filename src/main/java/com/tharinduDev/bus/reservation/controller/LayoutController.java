@@ -0,0 +1,37 @@
+package com.tharinduDev.bus.reservation.controller;
+
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+// Seat numbers of a bus layout by index, to decode the bitmap of CompactAvailabilityReport. Layouts are fixed by
+// configuration, so clients may keep the answer for as long as the service runs.
+@RestController
+@RequestMapping("/api/v1/layouts")
+public class LayoutController {
+
+    private static final CacheControl LAYOUT_CACHE = CacheControl.maxAge(Duration.ofHours(1));
+
+    private final BusLayouts busLayouts;
+
+    public LayoutController(BusLayouts busLayouts) {
+        this.busLayouts = busLayouts;
+    }
+
+    @GetMapping("/{layout}/seats")
+    public ResponseEntity<List<String>> getSeatNumbers(@PathVariable String layout) {
+        BusLayout busLayout = busLayouts.layout(layout);
+        if (busLayout == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().cacheControl(LAYOUT_CACHE).body(busLayout.seatNumbers());
+    }
+}
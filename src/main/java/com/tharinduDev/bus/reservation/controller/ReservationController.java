@@ -1,16 +1,26 @@
 package com.tharinduDev.bus.reservation.controller;
 
+import com.tharinduDev.bus.reservation.datasource.PrimaryReads;
 import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.CompactAvailabilityReport;
 import com.tharinduDev.bus.reservation.dto.ReservationDetails;
 import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
 import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.inventory.AvailabilityVersions;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import com.tharinduDev.bus.reservation.service.ReservationEngine;
 import com.tharinduDev.bus.reservation.service.ReservationService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,18 +30,54 @@ import org.springframework.web.bind.annotation.RestController;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationEngine reservationEngine;
+    private final AvailabilityVersions availabilityVersions;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, ReservationEngine reservationEngine,
+                                 AvailabilityVersions availabilityVersions) {
         this.reservationService = reservationService;
+        this.reservationEngine = reservationEngine;
+        this.availabilityVersions = availabilityVersions;
     }
 
+    // tagged with the journey's availability version; a poll whose If-None-Match still matches gets 304
+    // without availability being computed. The body is read from the replica once it has the writes the version
+    // counts, from the primary until then.
     @PostMapping("/check-availability")
-    public ResponseEntity<AvailabilityReport> checkAvailability(@Valid  @RequestBody TicketInquiry request) {
+    public ResponseEntity<AvailabilityReport> checkAvailability(
+            @Valid  @RequestBody TicketInquiry request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Received availability check request: {} passengers from {} to {}",
                 request.getPassengerCount(), request.getOrigin(), request.getDestination());
-        AvailabilityReport response = reservationService.checkAvailability(request);
+        long version = version(request);
+        String etag = AvailabilityETag.of(request, version);
+        if (AvailabilityETag.matches(ifNoneMatch, etag)) {
+            log.info("Availability unchanged since {}", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        AvailabilityReport response = PrimaryReads.untilReplicated(version,
+                () -> reservationService.checkAvailability(request));
         log.info("Availability check completed: {} seats available", response.getAvailableSeats());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    // selected by content negotiation (Accept: application/cbor); JSON stays the default representation
+    @PostMapping(value = "/check-availability", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<CompactAvailabilityReport> checkAvailabilityCompact(
+            @Valid @RequestBody TicketInquiry request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Received compact availability check request: {} passengers from {} to {}",
+                request.getPassengerCount(), request.getOrigin(), request.getDestination());
+        long version = version(request);
+        String etag = AvailabilityETag.of(request, version, AvailabilityETag.CBOR);
+        if (AvailabilityETag.matches(ifNoneMatch, etag)) {
+            log.info("Compact availability unchanged since {}", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        CompactAvailabilityReport response = PrimaryReads.untilReplicated(version,
+                () -> reservationService.checkAvailabilityCompact(request));
+        log.info("Compact availability check completed: {} seats available", response.getAvailableSeats());
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @PostMapping("/reserve")
@@ -39,9 +85,22 @@ public class ReservationController {
         log.info("Received reservation request: {} passengers from {} to {} with price Rs. {}",
                 request.getPassengerCount(), request.getOrigin(), request.getDestination(),
                 request.getPriceConfirmation());
-        ReservationDetails response = reservationService.reserveTickets(request);
+        ReservationDetails response = reservationEngine.reserve(request);
         log.info("Reservation completed: Reservation number {}, {} seats assigned",
                 response.getReservationNumber(), response.getSeatNumbers().size());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    @DeleteMapping("/{reservationNumber}")
+    public ResponseEntity<ReservationDetails> cancelReservation(@PathVariable String reservationNumber) {
+        log.info("Received cancellation request for reservation {}", reservationNumber);
+        ReservationDetails response = reservationService.cancelReservation(reservationNumber);
+        log.info("Cancellation completed: {} seats released", response.getSeatNumbers().size());
+        return ResponseEntity.ok(response);
+    }
+
+    private long version(TicketInquiry request) {
+        return availabilityVersions.version(request.operatorOrDefault(),
+                SegmentMask.of(request.getOrigin(), request.getDestination()));
+    }
 }
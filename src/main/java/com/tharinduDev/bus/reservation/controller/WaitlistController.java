@@ -0,0 +1,45 @@
+package com.tharinduDev.bus.reservation.controller;
+
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.WaitlistDetails;
+import com.tharinduDev.bus.reservation.enums.WaitlistStatus;
+import com.tharinduDev.bus.reservation.waitlist.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/waitlist")
+@Slf4j
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    // 201 when the seats could be booked straight away, 202 while the request is waiting
+    @PostMapping
+    public ResponseEntity<WaitlistDetails> joinWaitlist(@Valid @RequestBody ReservationInquiry request) {
+        log.info("Received waitlist request: {} passengers from {} to {} with price Rs. {}",
+                request.getPassengerCount(), request.getOrigin(), request.getDestination(),
+                request.getPriceConfirmation());
+        WaitlistDetails response = waitlistService.join(request);
+        log.info("Waitlist request {} is {}", response.getWaitlistId(), response.getStatus());
+        HttpStatus status = response.getStatus() == WaitlistStatus.ALLOCATED ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @GetMapping("/{waitlistId}")
+    public ResponseEntity<WaitlistDetails> getWaitlistEntry(@PathVariable String waitlistId) {
+        return ResponseEntity.ok(waitlistService.getEntry(waitlistId));
+    }
+}
@@ -0,0 +1,34 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Binds the calling client (same key as admission control: API key header, else remote address) for
+// read-your-writes routing
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+    private final String clientHeader;
+
+    public ClientContextFilter(ReadYourWrites readYourWrites, String clientHeader) {
+        this.readYourWrites = readYourWrites;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(clientHeader);
+        readYourWrites.begin(apiKey != null ? apiKey : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWrites.end();
+        }
+    }
+}
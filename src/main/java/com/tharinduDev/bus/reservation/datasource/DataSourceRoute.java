@@ -0,0 +1,5 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY, REPLICA
+}
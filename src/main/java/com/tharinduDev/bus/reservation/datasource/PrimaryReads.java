@@ -0,0 +1,33 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+import java.util.function.Supplier;
+
+// Keeps the reads of a block on the primary while the replica may be missing writes committed up to a given
+// time, for responses that must reflect them, such as availability bodies tagged with an AvailabilityVersions
+// version. Once the replica has replicated past that time the reads are routed as usual.
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Long> WRITTEN_UP_TO = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T untilReplicated(long writtenUpToMillis, Supplier<T> reads) {
+        Long previous = WRITTEN_UP_TO.get();
+        WRITTEN_UP_TO.set(previous == null ? writtenUpToMillis : Math.max(previous, writtenUpToMillis));
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                WRITTEN_UP_TO.remove();
+            } else {
+                WRITTEN_UP_TO.set(previous);
+            }
+        }
+    }
+
+    static boolean aheadOf(long replicatedUpToMillis) {
+        Long writtenUpTo = WRITTEN_UP_TO.get();
+        return writtenUpTo != null && writtenUpTo >= replicatedUpToMillis;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Remembers when each client last wrote, so its reads stay on the primary until the replica has caught up
+// past that write. The client of the current request is bound by ClientContextFilter.
+public class ReadYourWrites {
+
+    private static final ThreadLocal<RequestState> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Long> lastWriteMillis = new ConcurrentHashMap<>();
+
+    // called by whatever performs a write for the current request; no-op outside a tracked request
+    public static void markWrite() {
+        RequestState state = CURRENT.get();
+        if (state != null) {
+            state.wrote = true;
+        }
+    }
+
+    void begin(String client) {
+        CURRENT.set(new RequestState(client));
+    }
+
+    // recorded when the request completes, i.e. after its transactions committed
+    void end() {
+        RequestState state = CURRENT.get();
+        CURRENT.remove();
+        if (state != null && state.wrote) {
+            lastWriteMillis.put(state.client, System.currentTimeMillis());
+        }
+    }
+
+    boolean hasUnreplicatedWrite(long replicatedUpToMillis) {
+        RequestState state = CURRENT.get();
+        if (state == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteMillis.get(state.client);
+        return lastWrite != null && lastWrite >= replicatedUpToMillis;
+    }
+
+    // writes the replica already has no longer matter
+    void evictReplicated(long replicatedUpToMillis) {
+        lastWriteMillis.values().removeIf(lastWrite -> lastWrite < replicatedUpToMillis);
+    }
+
+    int trackedClients() {
+        return lastWriteMillis.size();
+    }
+
+    private static final class RequestState {
+        private final String client;
+        private boolean wrote;
+
+        private RequestState(String client) {
+            this.client = client;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reservation.datasource.replica")
+public record ReplicaDataSourceProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        @DefaultValue("sa") String username,
+        @DefaultValue("") String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5s") Duration stalenessBudget,
+        @DefaultValue("1s") Duration heartbeatInterval,
+        @DefaultValue("X-API-Key") String clientHeader) { }
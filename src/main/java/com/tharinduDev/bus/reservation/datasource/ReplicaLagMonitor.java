@@ -0,0 +1,74 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+// Measures replication lag with a heartbeat row: the primary's copy is stamped every heartbeat-interval, and
+// the stamp read back from the replica tells up to when the replica has applied the primary's writes.
+// Until the first successful read, and whenever the replica is unreachable, the replica counts as stale.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReadYourWrites readYourWrites;
+    private final long stalenessBudgetMillis;
+
+    private volatile long replicatedUpToMillis = Long.MIN_VALUE;
+    private volatile boolean reachable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, ReadYourWrites readYourWrites,
+                             long stalenessBudgetMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.readYourWrites = readYourWrites;
+        this.stalenessBudgetMillis = stalenessBudgetMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.datasource.replica.heartbeat-interval:1s}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        if (primary.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", now) == 0) {
+            try {
+                primary.update("INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, ?)", now);
+            } catch (DuplicateKeyException ex) {
+                // the first row was inserted by a concurrent heartbeat
+                primary.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", now);
+            }
+        }
+        try {
+            Long replicated = replica.query("SELECT beat_millis FROM replication_heartbeat WHERE id = 1",
+                    rs -> rs.next() ? rs.getLong(1) : null);
+            if (replicated != null) {
+                replicatedUpToMillis = replicated;
+            }
+            if (!reachable) {
+                log.info("Read replica reachable, lag {} ms", lagMillis());
+            }
+            reachable = true;
+        } catch (RuntimeException ex) {
+            if (reachable) {
+                log.warn("Read replica unreachable, reads go to the primary: {}", ex.getMessage());
+            }
+            reachable = false;
+        }
+        readYourWrites.evictReplicated(replicatedUpToMillis);
+    }
+
+    public boolean isWithinStalenessBudget() {
+        return reachable && lagMillis() <= stalenessBudgetMillis;
+    }
+
+    public long replicatedUpToMillis() {
+        return replicatedUpToMillis;
+    }
+
+    public long lagMillis() {
+        long replicated = replicatedUpToMillis;
+        return replicated == Long.MIN_VALUE ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - replicated);
+    }
+}
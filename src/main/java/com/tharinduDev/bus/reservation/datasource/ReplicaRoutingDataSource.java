@@ -0,0 +1,39 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Read-only transactions go to the replica while it is within the staleness budget and has neither a write of
+// the current client nor a write a PrimaryReads block depends on still to replicate; everything else goes to
+// the primary. Must sit behind a
+// LazyConnectionDataSourceProxy so the choice is made after the transaction's read-only flag is set.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWrites readYourWrites;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWrites readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    DataSourceRoute currentRoute() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.markWrite();
+            }
+            return DataSourceRoute.PRIMARY;
+        }
+        long replicatedUpTo = lagMonitor.replicatedUpToMillis();
+        if (!lagMonitor.isWithinStalenessBudget() || PrimaryReads.aheadOf(replicatedUpTo)
+                || readYourWrites.hasUnreplicatedWrite(replicatedUpTo)) {
+            return DataSourceRoute.PRIMARY;
+        }
+        return DataSourceRoute.REPLICA;
+    }
+}
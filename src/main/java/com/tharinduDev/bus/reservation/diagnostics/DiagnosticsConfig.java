@@ -0,0 +1,28 @@
+package com.tharinduDev.bus.reservation.diagnostics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(DiagnosticsProperties.class)
+@ConditionalOnProperty(name = "reservation.diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+public class DiagnosticsConfig {
+
+    @Bean
+    public SlowRequestRecorder slowRequestRecorder(DiagnosticsProperties properties) {
+        return new SlowRequestRecorder(properties);
+    }
+
+    // outermost filter, so time spent queueing in admission control counts towards the request
+    @Bean
+    public FilterRegistrationBean<SlowRequestFilter> slowRequestFilter(SlowRequestRecorder recorder) {
+        FilterRegistrationBean<SlowRequestFilter> registration = new FilterRegistrationBean<>(new SlowRequestFilter(recorder));
+        registration.addUrlPatterns("/api/v1/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
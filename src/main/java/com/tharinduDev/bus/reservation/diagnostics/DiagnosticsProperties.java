@@ -0,0 +1,17 @@
+package com.tharinduDev.bus.reservation.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "reservation.diagnostics")
+public record DiagnosticsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("500ms") Duration slowRequestThreshold,
+        @DefaultValue("1m") Duration minDumpInterval,
+        @DefaultValue("2m") Duration recordingMaxAge,
+        @DefaultValue("1ms") Duration phaseThreshold,
+        @DefaultValue("diagnostics/jfr") Path dumpDirectory,
+        @DefaultValue("20") int maxDumps) { }
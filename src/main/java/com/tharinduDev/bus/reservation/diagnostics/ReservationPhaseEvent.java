@@ -0,0 +1,64 @@
+package com.tharinduDev.bus.reservation.diagnostics;
+
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One phase of an availability check or booking. Costs a begin/end timestamp when recorded and nothing
+// measurable otherwise; fields are only filled in once JFR has decided to keep the event.
+@Name(ReservationPhaseEvent.NAME)
+@Label("Reservation Phase")
+@Category({"Bus Reservation", "Phases"})
+@Description("Duration and row count of one phase of an availability check or booking")
+@StackTrace(false)
+public class ReservationPhaseEvent extends Event {
+
+    public static final String NAME = "com.tharinduDev.bus.reservation.Phase";
+
+    public static final String ROUTE_LOOKUP = "route lookup";
+    public static final String SEAT_LOAD = "seat load";
+    public static final String RESERVATION_LOAD = "reservation load";
+    public static final String OVERLAP_COMPUTATION = "overlap computation";
+    public static final String SEAT_ASSIGNMENT = "seat assignment";
+    public static final String SAVE = "save";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Origin")
+    String origin;
+
+    @Label("Destination")
+    String destination;
+
+    @Label("Passenger Count")
+    int passengerCount;
+
+    @Label("Rows")
+    @Description("Rows read or written by the phase")
+    int rows;
+
+    public static ReservationPhaseEvent start(String phase, TicketInquiry request) {
+        ReservationPhaseEvent event = new ReservationPhaseEvent();
+        event.phase = phase;
+        event.begin();
+        if (event.isEnabled()) {
+            event.origin = request.getOrigin().name();
+            event.destination = request.getDestination().name();
+            event.passengerCount = request.getPassengerCount();
+        }
+        return event;
+    }
+
+    public void finish(int rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.tharinduDev.bus.reservation.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// Marks a request over the slow-request threshold in the recording, so a dump can be lined up with its phases
+@Name(SlowRequestEvent.NAME)
+@Label("Slow Request")
+@Category({"Bus Reservation", "Requests"})
+@Description("HTTP request that took longer than reservation.diagnostics.slow-request-threshold")
+@StackTrace(false)
+public class SlowRequestEvent extends Event {
+
+    public static final String NAME = "com.tharinduDev.bus.reservation.SlowRequest";
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Status")
+    int status;
+
+    @Label("Request Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long requestDuration;
+}
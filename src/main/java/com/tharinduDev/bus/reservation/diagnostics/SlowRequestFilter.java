@@ -0,0 +1,30 @@
+package com.tharinduDev.bus.reservation.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowRequestRecorder recorder;
+
+    public SlowRequestFilter(SlowRequestRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recorder.requestCompleted(request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.tharinduDev.bus.reservation.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Keeps a continuous in-memory/disk JFR recording of the last recording-max-age (JDK "default" settings, under
+// 1% overhead) and writes it to dump-directory when a request exceeds slow-request-threshold. Dumps are written
+// off the request thread, at most one per min-dump-interval, and only the newest max-dumps files are kept.
+@Slf4j
+public class SlowRequestRecorder implements SmartLifecycle {
+
+    private static final DateTimeFormatter DUMP_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final DiagnosticsProperties properties;
+    private final long thresholdNanos;
+    private final long minDumpIntervalNanos;
+    private final AtomicLong lastDumpNanos;
+    private final ExecutorService dumper = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slow-request-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Recording recording;
+
+    public SlowRequestRecorder(DiagnosticsProperties properties) {
+        this.properties = properties;
+        this.thresholdNanos = properties.slowRequestThreshold().toNanos();
+        this.minDumpIntervalNanos = properties.minDumpInterval().toNanos();
+        this.lastDumpNanos = new AtomicLong(System.nanoTime() - minDumpIntervalNanos);
+    }
+
+    public void requestCompleted(String method, String uri, int status, long durationNanos) {
+        if (durationNanos < thresholdNanos) {
+            return;
+        }
+        SlowRequestEvent event = new SlowRequestEvent();
+        event.method = method;
+        event.uri = uri;
+        event.status = status;
+        event.requestDuration = durationNanos;
+        event.commit();
+
+        long now = System.nanoTime();
+        long last = lastDumpNanos.get();
+        if (now - last >= minDumpIntervalNanos && lastDumpNanos.compareAndSet(last, now)) {
+            log.warn("Slow request {} {} took {} ms, dumping flight recording", method, uri, durationNanos / 1_000_000);
+            dumper.execute(() -> dump(method));
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.put(ReservationPhaseEvent.NAME + "#enabled", "true");
+            settings.put(ReservationPhaseEvent.NAME + "#threshold", properties.phaseThreshold().toMillis() + " ms");
+            settings.put(SlowRequestEvent.NAME + "#enabled", "true");
+            Recording continuous = new Recording(settings);
+            continuous.setName("slow-request-recorder");
+            continuous.setToDisk(true);
+            continuous.setMaxAge(properties.recordingMaxAge());
+            continuous.start();
+            recording = continuous;
+            log.info("Slow request recorder started: threshold {} ms, keeping {} of history",
+                    properties.slowRequestThreshold().toMillis(), properties.recordingMaxAge());
+        } catch (IOException | ParseException | IllegalStateException | SecurityException ex) {
+            // diagnostics must never stop the service from starting
+            log.warn("Flight recorder unavailable, slow requests will not be captured: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        dumper.shutdown();
+        Recording current = recording;
+        recording = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    private void dump(String method) {
+        Recording current = recording;
+        if (current == null) {
+            return;
+        }
+        try {
+            Path directory = properties.dumpDirectory();
+            Files.createDirectories(directory);
+            Path file = directory.resolve("slow-request-" + LocalDateTime.now().format(DUMP_TIME) + "-" + method + ".jfr");
+            // written under a temporary name so collectors never pick up a half-written recording
+            Path partial = directory.resolve(file.getFileName() + ".partial");
+            current.dump(partial);
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            log.warn("Flight recording of the last {} written to {}", properties.recordingMaxAge(), file);
+            pruneOldDumps(directory);
+        } catch (IOException ex) {
+            log.error("Could not write slow request flight recording: {}", ex.getMessage());
+        }
+    }
+
+    private void pruneOldDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(file -> file.getFileName().toString().startsWith("slow-request-"))
+                    .filter(file -> file.getFileName().toString().endsWith(".jfr"))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < dumps.size() - properties.maxDumps(); i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.tharinduDev.bus.reservation.dto;
 
 import com.tharinduDev.bus.reservation.entity.Route;
 import com.tharinduDev.bus.reservation.entity.Seat;
+
+import java.util.BitSet;
 import java.util.List;
 
-public record AvailabilityDetails(Route route, List<Seat> availableSeats) { }
+// availableSeatMap has one bit per seat of the bus layout, indexed by BusLayout index, set when the seat is free for the request
+public record AvailabilityDetails(Route route, List<Seat> availableSeats, int totalSeats, BitSet availableSeatMap) { }
@@ -0,0 +1,17 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySearchReport {
+    private Location origin;
+    private Integer passengerCount;
+    private List<DestinationAvailability> destinations;
+}
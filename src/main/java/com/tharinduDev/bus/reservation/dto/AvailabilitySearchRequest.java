@@ -0,0 +1,37 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.enums.Location;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySearchRequest {
+
+    @NotNull(message = "Number of passengers is required")
+    @Min(value = 1, message = "Number of passengers must be at least 1")
+    @Max(value = TicketInquiry.MAX_PASSENGERS, message = "Number of passengers cannot exceed " + TicketInquiry.MAX_PASSENGERS)
+    private Integer passengerCount;
+
+    @NotNull(message = "Origin location is required")
+    private Location origin;
+
+    // operator whose departures are searched; the default operator when absent
+    @Size(max = 64, message = "Operator id cannot exceed 64 characters")
+    private String operatorId;
+
+    public AvailabilitySearchRequest(Integer passengerCount, Location origin) {
+        this(passengerCount, origin, null);
+    }
+
+    public String operatorOrDefault() {
+        return operatorId != null ? operatorId : Route.DEFAULT_OPERATOR;
+    }
+}
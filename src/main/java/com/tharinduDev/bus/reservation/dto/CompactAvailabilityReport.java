@@ -0,0 +1,23 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Binary (CBOR) variant of AvailabilityReport. Seat availability is sent as a packed bitset instead of a list of
+// seat numbers: bit i (little-endian, BitSet#toByteArray layout) is set when the seat at index i of the bus layout
+// named by layout is available. Layout indexes run in row-major order; GET /api/v1/layouts/{layout}/seats returns
+// the seat number of every index, and does not change while the service runs.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactAvailabilityReport {
+    private Integer availableSeats;
+    private BigDecimal pricePerSeat;
+    private BigDecimal totalPrice;
+    private Integer totalSeats;
+    private String layout;
+    private byte[] availableSeatBitmap;
+}
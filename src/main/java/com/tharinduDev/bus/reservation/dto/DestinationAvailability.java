@@ -0,0 +1,20 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DestinationAvailability {
+    private Location destination;
+    private Integer availableSeats;
+    private BigDecimal pricePerSeat;
+    private BigDecimal totalPrice;
+    private List<String> availableSeatNumbers;
+}
@@ -0,0 +1,20 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItineraryLeg {
+    private Location origin;
+    private Location destination;
+    private BigDecimal pricePerSeat;
+    private Integer availableSeats;
+    private List<String> availableSeatNumbers;
+}
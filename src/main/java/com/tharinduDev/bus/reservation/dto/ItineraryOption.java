@@ -0,0 +1,18 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItineraryOption {
+    private Integer transfers;
+    private BigDecimal pricePerSeat;
+    private BigDecimal totalPrice;
+    private List<ItineraryLeg> legs;
+}
@@ -0,0 +1,18 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItinerarySearchReport {
+    private Location origin;
+    private Location destination;
+    private Integer passengerCount;
+    private List<ItineraryOption> options;
+}
@@ -1,9 +1,11 @@
 package com.tharinduDev.bus.reservation.dto;
 
+import com.tharinduDev.bus.reservation.entity.Route;
 import com.tharinduDev.bus.reservation.enums.Location;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,9 +15,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class TicketInquiry {
 
+    // seats of the largest bus type in the fleet; the active layout may have fewer
+    public static final int MAX_PASSENGERS = 54;
+
     @NotNull(message = "Number of passengers is required")
     @Min(value = 1, message = "Number of passengers must be at least 1")
-    @Max(value = 40, message = "Number of passengers cannot exceed 40")
+    @Max(value = MAX_PASSENGERS, message = "Number of passengers cannot exceed " + MAX_PASSENGERS)
     private Integer passengerCount;
 
     @NotNull(message = "Origin location is required")
@@ -23,4 +28,16 @@ public class TicketInquiry {
 
     @NotNull(message = "Destination location is required")
     private Location destination;
+
+    // operator whose route is booked or checked; the default operator when absent
+    @Size(max = 64, message = "Operator id cannot exceed 64 characters")
+    private String operatorId;
+
+    public TicketInquiry(Integer passengerCount, Location origin, Location destination) {
+        this(passengerCount, origin, destination, null);
+    }
+
+    public String operatorOrDefault() {
+        return operatorId != null ? operatorId : Route.DEFAULT_OPERATOR;
+    }
 }
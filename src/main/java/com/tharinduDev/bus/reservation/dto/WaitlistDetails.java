@@ -0,0 +1,22 @@
+package com.tharinduDev.bus.reservation.dto;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.enums.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistDetails {
+    private String waitlistId;
+    private WaitlistStatus status;
+    private Integer passengerCount;
+    private Location origin;
+    private Location destination;
+    // set once status is ALLOCATED
+    private ReservationDetails reservation;
+    // reason when status is FAILED
+    private String message;
+}
@@ -0,0 +1,42 @@
+package com.tharinduDev.bus.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // de-duplication id for consumers, events may be delivered more than once
+    @Column(nullable = false, unique = true)
+    private String eventId;
+
+    // reservation number; events of one reservation are delivered in aggregateVersion order
+    @Column(nullable = false)
+    private String aggregateId;
+
+    @Column(nullable = false)
+    private Integer aggregateVersion;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime publishedAt;
+}
@@ -40,4 +40,8 @@ public class Reservation {
     @Column(nullable = false)
     private BigDecimal totalPrice;
 
+    // operator of the booked route, the tenant partition this reservation belongs to
+    @Column(nullable = false, length = 64)
+    private String operatorId = Route.DEFAULT_OPERATOR;
+
 }
@@ -17,6 +17,9 @@ import java.util.List;
 @AllArgsConstructor
 public class Route {
 
+    // operator of the routes seeded by the reference data, and of requests that name no operator
+    public static final String DEFAULT_OPERATOR = "default";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -32,4 +35,11 @@ public class Route {
     @Column(nullable = false)
     private BigDecimal price;
 
+    @Column(nullable = false, length = 64)
+    private String operatorId = DEFAULT_OPERATOR;
+
+    public Route(Long id, Location fromLocation, Location toLocation, BigDecimal price) {
+        this(id, fromLocation, toLocation, price, DEFAULT_OPERATOR);
+    }
+
 }
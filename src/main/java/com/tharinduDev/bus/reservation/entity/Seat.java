@@ -17,7 +17,8 @@ public class Seat {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    // unique per operator, see operatorId
+    @Column(nullable = false)
     private String seatNumber;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -25,10 +26,19 @@ public class Seat {
     @JsonIgnore
     private Reservation reservation;
 
+    // operator whose bus the seat is on; every operator has the seats of the bus layout
+    @Column(nullable = false, length = 64)
+    private String operatorId = Route.DEFAULT_OPERATOR;
+
     // Constructor for creating seats without reservations (for testing)
     public Seat(Long id, String seatNumber) {
+        this(id, seatNumber, Route.DEFAULT_OPERATOR);
+    }
+
+    public Seat(Long id, String seatNumber, String operatorId) {
         this.id = id;
         this.seatNumber = seatNumber;
         this.reservation = null;
+        this.operatorId = operatorId;
     }
 }
@@ -0,0 +1,5 @@
+package com.tharinduDev.bus.reservation.enums;
+
+public enum WaitlistStatus {
+    WAITING, ALLOCATED, FAILED
+}
@@ -0,0 +1,9 @@
+package com.tharinduDev.bus.reservation.exception;
+
+// the booking engine has more reservations in progress than it can queue; the request may be retried
+public class BookingQueueFullException extends RuntimeException {
+
+    public BookingQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.tharinduDev.bus.reservation.exception;
 
 import com.tharinduDev.bus.reservation.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -25,6 +26,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFoundException(ReservationNotFoundException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
     @ExceptionHandler(NoSeatsAvailableException.class)
     public ResponseEntity<ErrorResponse> handleNoSeatsAvailableException(NoSeatsAvailableException ex) {
         ErrorResponse error = new ErrorResponse(
@@ -35,6 +46,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(BookingQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleBookingQueueFullException(BookingQueueFullException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+
     @ExceptionHandler(InvalidReservationException.class)
     public ResponseEntity<ErrorResponse> handleInvalidReservationException(InvalidReservationException ex) {
         ErrorResponse error = new ErrorResponse(
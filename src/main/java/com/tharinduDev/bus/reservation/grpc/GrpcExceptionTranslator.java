@@ -0,0 +1,40 @@
+package com.tharinduDev.bus.reservation.grpc;
+
+import com.tharinduDev.bus.reservation.exception.BookingQueueFullException;
+import com.tharinduDev.bus.reservation.exception.InvalidReservationException;
+import com.tharinduDev.bus.reservation.exception.NoSeatsAvailableException;
+import com.tharinduDev.bus.reservation.exception.RouteNotFoundException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+// gRPC counterpart of GlobalExceptionHandler
+@Slf4j
+final class GrpcExceptionTranslator {
+
+    private GrpcExceptionTranslator() {
+    }
+
+    static StatusRuntimeException toStatus(Throwable ex) {
+        if (ex instanceof StatusRuntimeException statusException) {
+            return statusException;
+        }
+        Status status;
+        if (ex instanceof RouteNotFoundException) {
+            status = Status.NOT_FOUND;
+        } else if (ex instanceof NoSeatsAvailableException) {
+            status = Status.RESOURCE_EXHAUSTED;
+        } else if (ex instanceof BookingQueueFullException) {
+            status = Status.UNAVAILABLE;
+        } else if (ex instanceof InvalidReservationException) {
+            status = Status.INVALID_ARGUMENT;
+        } else {
+            // the cause stays in the server log; clients only learn that the call failed
+            log.error("gRPC call failed", ex);
+            return Status.INTERNAL.withDescription("An unexpected error occurred")
+                    .withCause(ex)
+                    .asRuntimeException();
+        }
+        return status.withDescription(ex.getMessage()).asRuntimeException();
+    }
+}
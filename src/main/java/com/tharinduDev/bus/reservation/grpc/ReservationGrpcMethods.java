@@ -0,0 +1,77 @@
+package com.tharinduDev.bus.reservation.grpc;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// Method descriptors of the gRPC reservation service. Messages are the existing DTOs encoded as CBOR,
+// so the service and its clients share the REST contract without a separate protobuf schema.
+public final class ReservationGrpcMethods {
+
+    public static final String SERVICE_NAME = "bus.reservation.v1.ReservationService";
+
+    private static final CBORMapper CBOR_MAPPER = new CBORMapper();
+
+    public static final MethodDescriptor<TicketInquiry, AvailabilityReport> CHECK_AVAILABILITY =
+            MethodDescriptor.<TicketInquiry, AvailabilityReport>newBuilder()
+                    .setType(MethodDescriptor.MethodType.UNARY)
+                    .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, "CheckAvailability"))
+                    .setRequestMarshaller(cbor(TicketInquiry.class))
+                    .setResponseMarshaller(cbor(AvailabilityReport.class))
+                    .setSafe(true)
+                    .setIdempotent(true)
+                    .build();
+
+    public static final MethodDescriptor<ReservationInquiry, ReservationDetails> RESERVE =
+            MethodDescriptor.<ReservationInquiry, ReservationDetails>newBuilder()
+                    .setType(MethodDescriptor.MethodType.UNARY)
+                    .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, "Reserve"))
+                    .setRequestMarshaller(cbor(ReservationInquiry.class))
+                    .setResponseMarshaller(cbor(ReservationDetails.class))
+                    .build();
+
+    public static final MethodDescriptor<ReservationInquiry, ReservationDetails> RESERVE_BATCH =
+            MethodDescriptor.<ReservationInquiry, ReservationDetails>newBuilder()
+                    .setType(MethodDescriptor.MethodType.BIDI_STREAMING)
+                    .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, "ReserveBatch"))
+                    .setRequestMarshaller(cbor(ReservationInquiry.class))
+                    .setResponseMarshaller(cbor(ReservationDetails.class))
+                    .build();
+
+    private ReservationGrpcMethods() {
+    }
+
+    private static <T> MethodDescriptor.Marshaller<T> cbor(Class<T> type) {
+        return new MethodDescriptor.Marshaller<>() {
+            @Override
+            public InputStream stream(T value) {
+                try {
+                    return new ByteArrayInputStream(CBOR_MAPPER.writeValueAsBytes(value));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+
+            @Override
+            public T parse(InputStream stream) {
+                try {
+                    return CBOR_MAPPER.readValue(stream, type);
+                } catch (IOException ex) {
+                    throw Status.INVALID_ARGUMENT
+                            .withDescription("Malformed " + type.getSimpleName() + " message")
+                            .withCause(ex)
+                            .asRuntimeException();
+                }
+            }
+        };
+    }
+}
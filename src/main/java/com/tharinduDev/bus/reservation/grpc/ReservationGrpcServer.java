@@ -0,0 +1,91 @@
+package com.tharinduDev.bus.reservation.grpc;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+// Runs the gRPC reservation service next to the REST API. grpc.server.port=0 picks a free port,
+// and grpc.server.in-process-name additionally exposes the service in-process (for tests).
+@Component
+@ConditionalOnProperty(name = "grpc.server.enabled", havingValue = "true")
+@Slf4j
+public class ReservationGrpcServer implements SmartLifecycle {
+
+    private final ReservationGrpcService reservationGrpcService;
+    private final int port;
+    private final String inProcessName;
+
+    private Server server;
+    private Server inProcessServer;
+
+    public ReservationGrpcServer(ReservationGrpcService reservationGrpcService,
+                                 @Value("${grpc.server.port:9090}") int port,
+                                 @Value("${grpc.server.in-process-name:}") String inProcessName) {
+        this.reservationGrpcService = reservationGrpcService;
+        this.port = port;
+        this.inProcessName = inProcessName;
+    }
+
+    @Override
+    public void start() {
+        try {
+            server = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                    .addService(reservationGrpcService)
+                    .build()
+                    .start();
+            log.info("gRPC reservation service started on port {}", server.getPort());
+
+            if (!inProcessName.isBlank()) {
+                inProcessServer = InProcessServerBuilder.forName(inProcessName)
+                        .addService(reservationGrpcService)
+                        .build()
+                        .start();
+                log.info("gRPC reservation service available in-process as '{}'", inProcessName);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to start gRPC server on port " + port, ex);
+        }
+    }
+
+    @Override
+    public void stop() {
+        shutdown(inProcessServer);
+        shutdown(server);
+        inProcessServer = null;
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null && !server.isShutdown();
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    private void shutdown(Server grpcServer) {
+        if (grpcServer == null) {
+            return;
+        }
+        grpcServer.shutdown();
+        try {
+            if (!grpcServer.awaitTermination(5, TimeUnit.SECONDS)) {
+                grpcServer.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            grpcServer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.tharinduDev.bus.reservation.grpc;
+
+import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.service.ReservationEngine;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ReservationGrpcService implements BindableService {
+
+    private final ReservationService reservationService;
+    // books through the sequencer in sequencer mode, exactly like the REST API
+    private final ReservationEngine reservationEngine;
+    private final Validator validator;
+
+    public ReservationGrpcService(ReservationService reservationService, ReservationEngine reservationEngine,
+                                  Validator validator) {
+        this.reservationService = reservationService;
+        this.reservationEngine = reservationEngine;
+        this.validator = validator;
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition.builder(ReservationGrpcMethods.SERVICE_NAME)
+                .addMethod(ReservationGrpcMethods.CHECK_AVAILABILITY, ServerCalls.asyncUnaryCall(this::checkAvailability))
+                .addMethod(ReservationGrpcMethods.RESERVE, ServerCalls.asyncUnaryCall(this::reserve))
+                .addMethod(ReservationGrpcMethods.RESERVE_BATCH, ServerCalls.asyncBidiStreamingCall(this::reserveBatch))
+                .build();
+    }
+
+    void checkAvailability(TicketInquiry request, StreamObserver<AvailabilityReport> responseObserver) {
+        try {
+            validate(request);
+            responseObserver.onNext(reservationService.checkAvailability(request));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(GrpcExceptionTranslator.toStatus(ex));
+        }
+    }
+
+    void reserve(ReservationInquiry request, StreamObserver<ReservationDetails> responseObserver) {
+        try {
+            validate(request);
+            responseObserver.onNext(reservationEngine.reserve(request));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(GrpcExceptionTranslator.toStatus(ex));
+        }
+    }
+
+    // Reservations are made in arrival order and each one is answered as soon as it is booked.
+    // The first failed reservation ends the stream with its status; earlier bookings stay in place.
+    StreamObserver<ReservationInquiry> reserveBatch(StreamObserver<ReservationDetails> responseObserver) {
+        return new StreamObserver<>() {
+
+            private boolean failed;
+
+            @Override
+            public void onNext(ReservationInquiry request) {
+                if (failed) {
+                    return;
+                }
+                try {
+                    validate(request);
+                    responseObserver.onNext(reservationEngine.reserve(request));
+                } catch (RuntimeException ex) {
+                    failed = true;
+                    responseObserver.onError(GrpcExceptionTranslator.toStatus(ex));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("Batch reservation stream cancelled by client: {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!failed) {
+                    responseObserver.onCompleted();
+                }
+            }
+        };
+    }
+
+    private void validate(TicketInquiry request) {
+        Set<ConstraintViolation<TicketInquiry>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            throw Status.INVALID_ARGUMENT.withDescription(message).asRuntimeException();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Version of the seat availability of each road segment of each operator's bus, moved forward by every
+// committed booking or release of that operator over it. A journey's version is the newest version of its
+// segments, so it increases whenever availability of that journey may have changed and stays put otherwise.
+// A version is also a timestamp: never earlier than the wall-clock millisecond of the change it counts, so a
+// replica whose replication heartbeat is past the version has every write behind it (PrimaryReads). Versions
+// start from the startup time, so a tag handed out before a restart does not match a version issued after it.
+@Component
+public class AvailabilityVersions {
+
+    // one version per 64 byte cache line, as in SegmentCapacity
+    private static final int STRIDE = 8;
+    public static final int ALL_SEGMENTS = (1 << SegmentMask.SEGMENT_COUNT) - 1;
+
+    private final long epoch;
+    private final AtomicLong clock;
+    // created by an operator's first change; until then all its segments are at the epoch
+    private final Map<String, AtomicLongArray> byOperator = new ConcurrentHashMap<>();
+
+    public AvailabilityVersions() {
+        this.epoch = System.currentTimeMillis();
+        this.clock = new AtomicLong(epoch);
+    }
+
+    // read before computing availability, so the version a response is tagged with is never newer than its
+    // body. The version moves on commit and a replica may not have the commit yet: read the body with
+    // PrimaryReads.untilReplicated(version, ...).
+    public long version(String operatorId, int segmentMask) {
+        AtomicLongArray versions = byOperator.get(operatorId);
+        if (versions == null) {
+            return epoch;
+        }
+        long version = 0;
+        for (int segment = 0; segment < SegmentMask.SEGMENT_COUNT; segment++) {
+            if ((segmentMask & (1 << segment)) != 0) {
+                version = Math.max(version, versions.get(segment * STRIDE));
+            }
+        }
+        return version;
+    }
+
+    public void changed(String operatorId, int segmentMask) {
+        AtomicLongArray versions = byOperator.computeIfAbsent(operatorId, operator -> {
+            AtomicLongArray initial = new AtomicLongArray(SegmentMask.SEGMENT_COUNT * STRIDE);
+            for (int segment = 0; segment < SegmentMask.SEGMENT_COUNT; segment++) {
+                initial.set(segment * STRIDE, epoch);
+            }
+            return initial;
+        });
+        long version = clock.updateAndGet(last -> Math.max(last + 1, System.currentTimeMillis()));
+        for (int segment = 0; segment < SegmentMask.SEGMENT_COUNT; segment++) {
+            if ((segmentMask & (1 << segment)) != 0) {
+                versions.accumulateAndGet(segment * STRIDE, version, Math::max);
+            }
+        }
+    }
+
+    // after commit: a reader that sees the new version also sees the committed seats on the primary
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsReserved(SeatsReservedEvent event) {
+        changed(event.operatorId(), event.segmentMask());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        changed(event.operatorId(), event.segmentMask());
+    }
+}
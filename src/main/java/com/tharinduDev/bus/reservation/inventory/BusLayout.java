@@ -0,0 +1,90 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.enums.SeatClass;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Seat map of one bus type, built once and shared by everything that runs that bus type (flyweight).
+// Seats are indexed densely in row-major order; per-bus state such as SeatInventory keeps only primitive
+// arrays over these indexes. Immutable, safe to share between threads.
+public final class BusLayout {
+
+    private final String name;
+    private final String[] seatNumbers;
+    private final byte[] rows;
+    private final byte[] columns;
+    private final SeatClass[] seatClasses;
+    private final Map<String, Integer> indexBySeatNumber;
+
+    private BusLayout(String name, String[] seatNumbers, byte[] rows, byte[] columns, SeatClass[] seatClasses) {
+        this.name = name;
+        this.seatNumbers = seatNumbers;
+        this.rows = rows;
+        this.columns = columns;
+        this.seatClasses = seatClasses;
+        this.indexBySeatNumber = new HashMap<>(seatNumbers.length * 2);
+        for (int i = 0; i < seatNumbers.length; i++) {
+            indexBySeatNumber.put(seatNumbers[i], i);
+        }
+    }
+
+    // rows of seats lettered by columns ("ABCD" = 2+2), an optional wider back row, and premium front rows;
+    // seat numbers are row number plus letter, e.g. 1A .. 10D
+    public static BusLayout grid(String name, int rowCount, String columnLetters, String backRowLetters, int premiumRows) {
+        int size = rowCount * columnLetters.length() + backRowLetters.length();
+        String[] seatNumbers = new String[size];
+        byte[] rows = new byte[size];
+        byte[] columns = new byte[size];
+        SeatClass[] seatClasses = new SeatClass[size];
+
+        int index = 0;
+        for (int row = 1; row <= rowCount + 1; row++) {
+            String letters = row <= rowCount ? columnLetters : backRowLetters;
+            for (int column = 0; column < letters.length(); column++) {
+                seatNumbers[index] = row + String.valueOf(letters.charAt(column));
+                rows[index] = (byte) row;
+                columns[index] = (byte) column;
+                seatClasses[index] = row <= premiumRows ? SeatClass.PREMIUM : SeatClass.STANDARD;
+                index++;
+            }
+        }
+        return new BusLayout(name, seatNumbers, rows, columns, seatClasses);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int size() {
+        return seatNumbers.length;
+    }
+
+    // -1 when the seat is not part of this layout
+    public int indexOf(String seatNumber) {
+        return indexBySeatNumber.getOrDefault(seatNumber, -1);
+    }
+
+    public String seatNumber(int index) {
+        return seatNumbers[index];
+    }
+
+    // seat numbers in index order
+    public List<String> seatNumbers() {
+        return Arrays.asList(seatNumbers.clone());
+    }
+
+    public int row(int index) {
+        return rows[index];
+    }
+
+    public int column(int index) {
+        return columns[index];
+    }
+
+    public SeatClass seatClass(int index) {
+        return seatClasses[index];
+    }
+}
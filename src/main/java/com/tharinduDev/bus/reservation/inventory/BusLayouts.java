@@ -0,0 +1,39 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The bus types of the fleet, one shared BusLayout each, and the one this service is running
+public class BusLayouts {
+
+    private final Map<String, BusLayout> layouts;
+    private final BusLayout active;
+
+    public BusLayouts(FleetProperties properties) {
+        Map<String, BusLayout> built = new LinkedHashMap<>();
+        if (properties.layouts() != null) {
+            properties.layouts().forEach((name, layout) -> built.put(name,
+                    BusLayout.grid(name, layout.rows(), layout.columns(), layout.backRow(), layout.premiumRows())));
+        }
+        this.layouts = Collections.unmodifiableMap(built);
+        this.active = layouts.get(properties.activeLayout());
+        if (active == null) {
+            throw new IllegalStateException("reservation.fleet.active-layout " + properties.activeLayout()
+                    + " is not one of the configured layouts " + layouts.keySet());
+        }
+    }
+
+    public BusLayout active() {
+        return active;
+    }
+
+    public BusLayout layout(String name) {
+        return layouts.get(name);
+    }
+
+    public Collection<BusLayout> all() {
+        return layouts.values();
+    }
+}
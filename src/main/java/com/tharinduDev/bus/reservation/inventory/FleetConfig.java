@@ -0,0 +1,15 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(FleetProperties.class)
+public class FleetConfig {
+
+    @Bean
+    public BusLayouts busLayouts(FleetProperties properties) {
+        return new BusLayouts(properties);
+    }
+}
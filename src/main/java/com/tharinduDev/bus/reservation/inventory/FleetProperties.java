@@ -0,0 +1,18 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "reservation.fleet")
+public record FleetProperties(
+        @DefaultValue("standard-40") String activeLayout,
+        Map<String, Layout> layouts) {
+
+    public record Layout(
+            int rows,
+            String columns,
+            @DefaultValue("") String backRow,
+            @DefaultValue("0") int premiumRows) { }
+}
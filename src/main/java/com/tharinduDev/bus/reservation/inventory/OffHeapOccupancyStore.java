@@ -0,0 +1,280 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.entity.Reservation;
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.repository.SeatOccupancy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// Seat occupancy of a whole departure horizon of one bus layout, kept outside the Java heap so millions of
+// seat states add nothing for the garbage collector to trace or copy. One byte per seat holds the segment mask
+// of SeatInventory; departure d starts at a fixed offset d * stride, so addressing is O(1). Seats are updated
+// with compare-and-set on the 4-byte word that contains them and read with acquire loads: readers never lock
+// and concurrent writers to one departure need no external synchronization.
+// The slab is either direct memory or a memory-mapped file, which survives a restart without reloading
+// occupancy from the database. Limited to 2 GB per store (ByteBuffer indexing).
+// ReservationSequencer keeps the buses of all operators in one store, one departure per operator.
+public final class OffHeapOccupancyStore {
+
+    private static final VarHandle WORD =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x4F434350;
+    private static final int FORMAT_VERSION = 1;
+    // padding bytes at the end of a departure look occupied on every segment, so they are never counted or taken
+    private static final int PADDING = 0xFF;
+
+    private final BusLayout layout;
+    private final int departures;
+    private final int stride;
+    private final ByteBuffer slab;
+
+    private OffHeapOccupancyStore(BusLayout layout, int departures, ByteBuffer slab) {
+        this.layout = layout;
+        this.departures = departures;
+        this.stride = stride(layout);
+        this.slab = slab.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // empty store in direct memory
+    public static OffHeapOccupancyStore allocate(BusLayout layout, int departures) {
+        OffHeapOccupancyStore store = new OffHeapOccupancyStore(layout, departures,
+                ByteBuffer.allocateDirect(capacity(layout, departures)));
+        store.initialize();
+        return store;
+    }
+
+    // Store backed by file: reopens the occupancy written by an earlier run, or creates an empty one. The file
+    // must have been written for the same layout and number of departures.
+    public static OffHeapOccupancyStore mapped(Path file, BusLayout layout, int departures) {
+        int capacity = capacity(layout, departures);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            boolean created = channel.size() == 0;
+            if (!created && channel.size() != capacity) {
+                throw new IllegalStateException("Occupancy file " + file + " has " + channel.size()
+                        + " bytes, expected " + capacity + " for " + departures + " departures of " + layout.name());
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            OffHeapOccupancyStore store = new OffHeapOccupancyStore(layout, departures, buffer);
+            if (created) {
+                store.initialize();
+            } else {
+                store.verifyHeader(file);
+            }
+            return store;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot map occupancy file " + file, ex);
+        }
+    }
+
+    public int departures() {
+        return departures;
+    }
+
+    public int seatsPerDeparture() {
+        return layout.size();
+    }
+
+    public BusLayout layout() {
+        return layout;
+    }
+
+    // segments of the seat that are taken
+    public int occupiedSegments(int departure, int seat) {
+        int offset = offset(departure, seat);
+        return byteOf((int) WORD.getAcquire(slab, offset & ~3), offset);
+    }
+
+    public int available(int departure, int segmentMask) {
+        int start = offset(departure, 0);
+        int repeatedMask = (segmentMask & 0xFF) * 0x01010101;
+        int taken = 0;
+        for (int word = start; word < start + stride; word += Integer.BYTES) {
+            int overlap = (int) WORD.getAcquire(slab, word) & repeatedMask;
+            // high bit of each byte set when that byte is non-zero
+            taken += Integer.bitCount(((overlap & 0x7F7F7F7F) + 0x7F7F7F7F | overlap) & 0x80808080);
+        }
+        return stride - taken;
+    }
+
+    // Takes the first count seats free on segmentMask (lowest index first, as SeatInventory) into seatIndexes.
+    // All-or-nothing: seats taken before finding too few are given back and false is returned. Readers may
+    // briefly see the seats of an allocation that is then given back.
+    public boolean allocate(int departure, int segmentMask, int count, int[] seatIndexes) {
+        int found = 0;
+        for (int seat = 0; seat < layout.size() && found < count; seat++) {
+            if (occupy(departure, seat, segmentMask)) {
+                seatIndexes[found++] = seat;
+            }
+        }
+        if (found < count) {
+            release(departure, segmentMask, found, seatIndexes);
+            return false;
+        }
+        return true;
+    }
+
+    public void release(int departure, int segmentMask, int count, int[] seatIndexes) {
+        for (int i = 0; i < count; i++) {
+            update(offset(departure, seatIndexes[i]), segmentMask, false);
+        }
+    }
+
+    // marks the seat taken on segmentMask if it is free on all of those segments
+    public boolean occupy(int departure, int seat, int segmentMask) {
+        int offset = offset(departure, seat);
+        int bits = (segmentMask & 0xFF) << shift(offset);
+        int word = offset & ~3;
+        int current;
+        do {
+            current = (int) WORD.getAcquire(slab, word);
+            if ((current & bits) != 0) {
+                return false;
+            }
+        } while (!WORD.compareAndSet(slab, word, current, current | bits));
+        return true;
+    }
+
+    // Replaces the occupancy of one departure with the given reservations, as SeatInventory.load does; used to
+    // reuse the slot of a departed bus for a new day at the end of the horizon
+    public void load(int departure, List<Reservation> reservations) {
+        clear(departure);
+        for (Reservation reservation : reservations) {
+            int mask = SegmentMask.of(reservation.getFromLocation(), reservation.getToLocation());
+            for (Seat seat : reservation.getSeats()) {
+                int index = layout.indexOf(seat.getSeatNumber());
+                if (index >= 0) {
+                    update(offset(departure, index), mask, true);
+                }
+            }
+        }
+    }
+
+    // same as load, from the booked journey of each occupied seat, as SeatInventory.fromOccupancy does
+    public void loadOccupancy(int departure, List<SeatOccupancy> occupancy) {
+        clear(departure);
+        for (SeatOccupancy seat : occupancy) {
+            int index = layout.indexOf(seat.getSeatNumber());
+            if (index >= 0) {
+                update(offset(departure, index), SegmentMask.of(seat.getFromLocation(), seat.getToLocation()), true);
+            }
+        }
+    }
+
+    // adds segments to a seat without allocating it, used to repair occupancy from the database
+    public void addSegments(int departure, int seat, int segmentMask) {
+        update(offset(departure, seat), segmentMask, true);
+    }
+
+    // checksum of the occupied segments of seats [from, to) of one departure; equal to SeatInventory.checksum
+    // of the same occupancy
+    public long checksum(int departure, int from, int to) {
+        CRC32C crc = new CRC32C();
+        for (int seat = from; seat < to; seat++) {
+            crc.update(occupiedSegments(departure, seat));
+        }
+        return crc.getValue();
+    }
+
+    public void clear(int departure) {
+        int start = offset(departure, 0);
+        for (int word = start; word < start + stride; word += Integer.BYTES) {
+            WORD.setRelease(slab, word, emptyWord(word - start));
+        }
+    }
+
+    // writes a memory-mapped store through to its file; no-op for direct memory
+    public void force() {
+        if (slab instanceof MappedByteBuffer mapped) {
+            mapped.force();
+        }
+    }
+
+    private void initialize() {
+        slab.putInt(0, MAGIC);
+        slab.putInt(4, FORMAT_VERSION);
+        slab.putInt(8, layout.size());
+        slab.putInt(12, stride);
+        slab.putInt(16, departures);
+        slab.putInt(20, layout.name().hashCode());
+        for (int departure = 0; departure < departures; departure++) {
+            clear(departure);
+        }
+    }
+
+    private void verifyHeader(Path file) {
+        if (slab.getInt(0) != MAGIC || slab.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Not an occupancy file: " + file);
+        }
+        if (slab.getInt(8) != layout.size() || slab.getInt(16) != departures
+                || slab.getInt(20) != layout.name().hashCode()) {
+            throw new IllegalStateException("Occupancy file " + file + " was written for a different layout or horizon, expected "
+                    + departures + " departures of " + layout.name());
+        }
+    }
+
+    private void update(int offset, int segmentMask, boolean occupied) {
+        int bits = (segmentMask & 0xFF) << shift(offset);
+        int word = offset & ~3;
+        int current;
+        do {
+            current = (int) WORD.getAcquire(slab, word);
+        } while (!WORD.compareAndSet(slab, word, current, occupied ? current | bits : current & ~bits));
+    }
+
+    // empty seats are 0, padding past the last seat of the departure is PADDING
+    private int emptyWord(int departureOffset) {
+        int word = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            if (departureOffset + i >= layout.size()) {
+                word |= PADDING << (i * Byte.SIZE);
+            }
+        }
+        return word;
+    }
+
+    private int offset(int departure, int seat) {
+        if (departure < 0 || departure >= departures) {
+            throw new IndexOutOfBoundsException("Departure " + departure + " outside horizon of " + departures);
+        }
+        if (seat < 0 || seat >= layout.size()) {
+            throw new IndexOutOfBoundsException("Seat " + seat + " outside layout " + layout.name());
+        }
+        return HEADER_SIZE + departure * stride + seat;
+    }
+
+    private static int byteOf(int word, int offset) {
+        return (word >>> shift(offset)) & 0xFF;
+    }
+
+    private static int shift(int offset) {
+        return (offset & 3) * Byte.SIZE;
+    }
+
+    // bytes per departure, whole words so no word is shared by two departures
+    private static int stride(BusLayout layout) {
+        return (layout.size() + Integer.BYTES - 1) & -Integer.BYTES;
+    }
+
+    private static int capacity(BusLayout layout, int departures) {
+        long capacity = HEADER_SIZE + (long) departures * stride(layout);
+        if (departures < 1 || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot hold " + departures + " departures of " + layout.name()
+                    + " in one occupancy store");
+        }
+        return (int) capacity;
+    }
+}
@@ -0,0 +1,124 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.entity.Reservation;
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.repository.SeatOccupancy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+// In-memory seat occupancy of one bus: a segment mask per seat of its BusLayout, in layout index order. The
+// layout is shared, so a bus costs one int per seat. Not thread-safe for writes; it is either owned by a single
+// writer (see ReservationSequencer) or used as a read-only snapshot that may be shared between threads once loaded.
+public class SeatInventory {
+
+    private final BusLayout layout;
+    private final int[] occupiedSegments;
+
+    private SeatInventory(BusLayout layout) {
+        this.layout = layout;
+        this.occupiedSegments = new int[layout.size()];
+    }
+
+    // seats of reservations that are not part of the layout are ignored
+    public static SeatInventory load(BusLayout layout, List<Reservation> reservations) {
+        SeatInventory inventory = new SeatInventory(layout);
+        for (Reservation reservation : reservations) {
+            int mask = SegmentMask.of(reservation.getFromLocation(), reservation.getToLocation());
+            for (Seat seat : reservation.getSeats()) {
+                int index = layout.indexOf(seat.getSeatNumber());
+                if (index >= 0) {
+                    inventory.occupiedSegments[index] |= mask;
+                }
+            }
+        }
+        return inventory;
+    }
+
+    // same as load, from the booked journey of each occupied seat instead of whole reservations
+    public static SeatInventory fromOccupancy(BusLayout layout, List<SeatOccupancy> occupancy) {
+        SeatInventory inventory = new SeatInventory(layout);
+        for (SeatOccupancy seat : occupancy) {
+            int index = layout.indexOf(seat.getSeatNumber());
+            if (index >= 0) {
+                inventory.occupiedSegments[index] |= SegmentMask.of(seat.getFromLocation(), seat.getToLocation());
+            }
+        }
+        return inventory;
+    }
+
+    // checksum of the occupied segments of seats [from, to), comparable across inventories of the same layout
+    public static long checksum(int[] occupiedSegments, int from, int to) {
+        CRC32C crc = new CRC32C();
+        for (int i = from; i < to; i++) {
+            crc.update(occupiedSegments[i]);
+        }
+        return crc.getValue();
+    }
+
+    public long checksum(int from, int to) {
+        return checksum(occupiedSegments, from, to);
+    }
+
+    public int occupiedSegments(int index) {
+        return occupiedSegments[index];
+    }
+
+    // adds segments to a seat without allocating it, used to repair the inventory from the database
+    public void occupy(int index, int segmentMask) {
+        occupiedSegments[index] |= segmentMask;
+    }
+
+    public int size() {
+        return occupiedSegments.length;
+    }
+
+    public int available(int segmentMask) {
+        int available = 0;
+        for (int occupied : occupiedSegments) {
+            if ((occupied & segmentMask) == 0) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    public List<String> availableSeatNumbers(int segmentMask) {
+        List<String> available = new ArrayList<>();
+        for (int i = 0; i < occupiedSegments.length; i++) {
+            if ((occupiedSegments[i] & segmentMask) == 0) {
+                available.add(layout.seatNumber(i));
+            }
+        }
+        return available;
+    }
+
+    // takes the first count free seats (lowest index first, like the transactional path) into seatIndexes;
+    // all-or-nothing, returns false without changing anything when fewer seats are free
+    public boolean allocate(int segmentMask, int count, int[] seatIndexes) {
+        int found = 0;
+        for (int i = 0; i < occupiedSegments.length && found < count; i++) {
+            if ((occupiedSegments[i] & segmentMask) == 0) {
+                seatIndexes[found++] = i;
+            }
+        }
+        if (found < count) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            occupiedSegments[seatIndexes[i]] |= segmentMask;
+        }
+        return true;
+    }
+
+    public void release(int segmentMask, int count, int[] seatIndexes) {
+        for (int i = 0; i < count; i++) {
+            occupiedSegments[seatIndexes[i]] &= ~segmentMask;
+        }
+    }
+
+    public String seatNumber(int index) {
+        return layout.seatNumber(index);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+
+import java.util.List;
+
+// Published inside the transaction that frees seats; listeners use @TransactionalEventListener so they only
+// see releases that were committed.
+public record SeatsReleasedEvent(String reservationNumber, String operatorId, Location fromLocation,
+                                 Location toLocation, List<String> seatNumbers) {
+
+    public int segmentMask() {
+        return SegmentMask.of(fromLocation, toLocation);
+    }
+}
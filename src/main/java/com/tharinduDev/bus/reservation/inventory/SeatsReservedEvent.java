@@ -0,0 +1,14 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+
+import java.util.List;
+
+// Published inside the transaction that books seats, by both booking engines
+public record SeatsReservedEvent(String reservationNumber, String operatorId, Location fromLocation,
+                                 Location toLocation, List<String> seatNumbers) {
+
+    public int segmentMask() {
+        return SegmentMask.of(fromLocation, toLocation);
+    }
+}
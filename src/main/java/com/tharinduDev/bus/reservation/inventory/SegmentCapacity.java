@@ -0,0 +1,141 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Remaining seats per road segment of each operator's bus, kept in atomic counters so sold-out requests can be
+// rejected without touching the database. A journey can have at most as many free seats as its fullest
+// segment, so a request for more passengers than that can never succeed; fewer passengers still need the
+// full seat check.
+// Counters change when a booking or release commits and are corrected by reconcile() against a database
+// snapshot of that operator's seats. Until an operator's first reconcile its counters are unknown and nothing
+// is rejected.
+@Component
+public class SegmentCapacity {
+
+    // one counter per 64 byte cache line, request threads updating different segments do not contend
+    private static final int STRIDE = 16;
+
+    // created by the first change or reconcile of an operator; requests alone never add one
+    private final Map<String, Counters> byOperator = new ConcurrentHashMap<>();
+
+    public boolean canFit(String operatorId, int segmentMask, int passengerCount) {
+        Counters counters = byOperator.get(operatorId);
+        return counters == null || !counters.loaded || counters.available(segmentMask) >= passengerCount;
+    }
+
+    public boolean isSoldOut(String operatorId, int segmentMask) {
+        Counters counters = byOperator.get(operatorId);
+        return counters != null && counters.loaded && counters.available(segmentMask) == 0;
+    }
+
+    // upper bound on the seats a journey over segmentMask can get
+    public int available(String operatorId, int segmentMask) {
+        Counters counters = byOperator.get(operatorId);
+        return counters != null ? counters.available(segmentMask) : Integer.MAX_VALUE;
+    }
+
+    public int totalSeats(String operatorId) {
+        Counters counters = byOperator.get(operatorId);
+        return counters != null ? counters.totalSeats : 0;
+    }
+
+    public void reserved(String operatorId, int segmentMask, int seatCount) {
+        counters(operatorId).changeOnCommit(segmentMask, -seatCount);
+    }
+
+    public void released(String operatorId, int segmentMask, int seatCount) {
+        counters(operatorId).changeOnCommit(segmentMask, seatCount);
+    }
+
+    // Brings the operator's counters in line with the snapshot and returns how many seats they were off by.
+    // Gives up (returns -1) when a booking or release of that operator completed or was in flight while the
+    // snapshot was read, because it may be counted twice or not at all.
+    public int reconcile(String operatorId, Supplier<SeatInventory> snapshot) {
+        return counters(operatorId).reconcile(snapshot);
+    }
+
+    private Counters counters(String operatorId) {
+        return byOperator.computeIfAbsent(operatorId, operator -> new Counters());
+    }
+
+    private static final class Counters {
+
+        private final AtomicIntegerArray remaining = new AtomicIntegerArray(SegmentMask.SEGMENT_COUNT * STRIDE);
+        // bookings/releases whose transaction has not completed yet, and changes applied so far
+        private final AtomicLong pendingChanges = new AtomicLong();
+        private final AtomicLong appliedChanges = new AtomicLong();
+        private volatile boolean loaded;
+        private volatile int totalSeats;
+
+        int available(int segmentMask) {
+            int available = Integer.MAX_VALUE;
+            for (int segment = 0; segment < SegmentMask.SEGMENT_COUNT; segment++) {
+                if ((segmentMask & (1 << segment)) != 0) {
+                    available = Math.min(available, remaining.get(segment * STRIDE));
+                }
+            }
+            return available;
+        }
+
+        int reconcile(Supplier<SeatInventory> snapshot) {
+            long changesBefore = appliedChanges.get();
+            if (pendingChanges.get() > 0) {
+                return -1;
+            }
+            int[] before = new int[SegmentMask.SEGMENT_COUNT];
+            for (int segment = 0; segment < before.length; segment++) {
+                before[segment] = remaining.get(segment * STRIDE);
+            }
+
+            SeatInventory inventory = snapshot.get();
+            if (pendingChanges.get() > 0 || appliedChanges.get() != changesBefore) {
+                return -1;
+            }
+
+            // corrections are added rather than set, so changes applied from here on are not lost
+            int drift = 0;
+            for (int segment = 0; segment < before.length; segment++) {
+                int correction = inventory.available(1 << segment) - before[segment];
+                remaining.getAndAdd(segment * STRIDE, correction);
+                drift += Math.abs(correction);
+            }
+            totalSeats = inventory.size();
+            loaded = true;
+            return drift;
+        }
+
+        void changeOnCommit(int segmentMask, int delta) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                apply(segmentMask, delta);
+                return;
+            }
+            pendingChanges.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        apply(segmentMask, delta);
+                    }
+                    pendingChanges.decrementAndGet();
+                }
+            });
+        }
+
+        private void apply(int segmentMask, int delta) {
+            for (int segment = 0; segment < SegmentMask.SEGMENT_COUNT; segment++) {
+                if ((segmentMask & (1 << segment)) != 0) {
+                    remaining.getAndAdd(segment * STRIDE, delta);
+                }
+            }
+            appliedChanges.incrementAndGet();
+        }
+    }
+}
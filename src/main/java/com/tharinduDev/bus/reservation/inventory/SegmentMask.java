@@ -0,0 +1,60 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Encodes the road segments a journey travels over as a bit mask. Bit i is the forward segment between stop i
+// and stop i + 1, bit SEGMENTS_PER_DIRECTION + i is the same segment travelled backwards. Two journeys compete
+// for a seat exactly when their masks intersect: same direction and intersecting segments.
+public final class SegmentMask {
+
+    public static final int SEGMENTS_PER_DIRECTION = Location.values().length - 1;
+    public static final int SEGMENT_COUNT = SEGMENTS_PER_DIRECTION * 2;
+
+    private SegmentMask() {
+    }
+
+    public static int of(Location from, Location to) {
+        int fromPosition = position(from);
+        int toPosition = position(to);
+        int start = Math.min(fromPosition, toPosition);
+        int end = Math.max(fromPosition, toPosition);
+
+        int mask = ((1 << end) - 1) & ~((1 << start) - 1);
+        return toPosition < fromPosition ? mask << SEGMENTS_PER_DIRECTION : mask;
+    }
+
+    public static boolean overlaps(Location req1From, Location req1To, Location req2From, Location req2To) {
+        return (of(req1From, req1To) & of(req2From, req2To)) != 0;
+    }
+
+    // Boarding and alighting stops of the journeys that can compete with from -> to. Every competing journey
+    // boards at one of competingOrigins and alights at one of competingDestinations; some combinations travel
+    // the other way and still need the overlaps check.
+    public static List<Location> competingOrigins(Location from, Location to) {
+        int toPosition = position(to);
+        boolean forward = position(from) < toPosition;
+        return Arrays.stream(Location.values())
+                .filter(stop -> forward ? position(stop) < toPosition : position(stop) > toPosition)
+                .toList();
+    }
+
+    public static List<Location> competingDestinations(Location from, Location to) {
+        int fromPosition = position(from);
+        boolean forward = fromPosition < position(to);
+        return Arrays.stream(Location.values())
+                .filter(stop -> forward ? position(stop) > fromPosition : position(stop) < fromPosition)
+                .toList();
+    }
+
+    public static int position(Location location) {
+        return switch (location) {
+            case A -> 0;
+            case B -> 1;
+            case C -> 2;
+            case D -> 3;
+        };
+    }
+}
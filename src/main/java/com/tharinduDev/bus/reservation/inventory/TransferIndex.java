@@ -0,0 +1,96 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.enums.Location;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Every journey between two stops with up to MAX_TRANSFERS changes, precomputed from the route table so a search
+// only has to check live seat availability. Journeys never revisit a stop or turn back, and are kept cheapest
+// first, fewer legs first on equal price. Immutable once built.
+public final class TransferIndex {
+
+    public static final int MAX_TRANSFERS = 2;
+
+    private final Map<Location, Map<Location, List<List<Route>>>> itineraries;
+
+    private TransferIndex(Map<Location, Map<Location, List<List<Route>>>> itineraries) {
+        this.itineraries = itineraries;
+    }
+
+    public static TransferIndex build(List<Route> routes) {
+        Map<Location, List<Route>> departures = new EnumMap<>(Location.class);
+        for (Route route : routes) {
+            departures.computeIfAbsent(route.getFromLocation(), from -> new ArrayList<>()).add(route);
+        }
+
+        Map<Location, Map<Location, List<List<Route>>>> itineraries = new EnumMap<>(Location.class);
+        for (Location origin : Location.values()) {
+            Map<Location, List<List<Route>>> byDestination = new EnumMap<>(Location.class);
+            collect(departures, new ArrayList<>(), origin, byDestination);
+            byDestination.values().forEach(candidates -> candidates.sort(
+                    Comparator.comparing(TransferIndex::pricePerSeat).thenComparing(List::size)));
+            itineraries.put(origin, byDestination);
+        }
+        return new TransferIndex(itineraries);
+    }
+
+    // candidate journeys from origin to destination, best first; empty when the stops are not connected
+    public List<List<Route>> itineraries(Location origin, Location destination) {
+        return itineraries.get(origin).getOrDefault(destination, List.of());
+    }
+
+    // candidate journeys whose every leg passes legOpen, best first; used to drop journeys over a sold-out leg
+    // before any seat is read
+    public List<List<Route>> itineraries(Location origin, Location destination, Predicate<Route> legOpen) {
+        List<List<Route>> open = new ArrayList<>();
+        for (List<Route> candidate : itineraries(origin, destination)) {
+            if (candidate.stream().allMatch(legOpen)) {
+                open.add(candidate);
+            }
+        }
+        return open;
+    }
+
+    public static BigDecimal pricePerSeat(List<Route> legs) {
+        BigDecimal price = BigDecimal.ZERO;
+        for (Route leg : legs) {
+            price = price.add(leg.getPrice());
+        }
+        return price;
+    }
+
+    private static void collect(Map<Location, List<Route>> departures, List<Route> legs, Location at,
+                                Map<Location, List<List<Route>>> byDestination) {
+        for (Route next : departures.getOrDefault(at, List.of())) {
+            if (!continuesForward(legs, next)) {
+                continue;
+            }
+            legs.add(next);
+            byDestination.computeIfAbsent(next.getToLocation(), to -> new ArrayList<>()).add(List.copyOf(legs));
+            if (legs.size() <= MAX_TRANSFERS) {
+                collect(departures, legs, next.getToLocation(), byDestination);
+            }
+            legs.remove(legs.size() - 1);
+        }
+    }
+
+    // the next leg must travel the same way along the line as the journey so far
+    private static boolean continuesForward(List<Route> legs, Route next) {
+        if (legs.isEmpty()) {
+            return true;
+        }
+        Route first = legs.get(0);
+        return direction(first) == direction(next);
+    }
+
+    private static int direction(Route route) {
+        return Integer.signum(SegmentMask.position(route.getToLocation()) - SegmentMask.position(route.getFromLocation()));
+    }
+}
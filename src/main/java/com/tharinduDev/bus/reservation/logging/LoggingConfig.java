@@ -0,0 +1,22 @@
+package com.tharinduDev.bus.reservation.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LoggingConfig {
+
+    // runs before admission control so a request's log lines are sampled as a whole
+    @Bean
+    public FilterRegistrationBean<RequestLogSamplingFilter> requestLogSamplingFilter(
+            @Value("${reservation.logging.sample-rate:1.0}") double sampleRate) {
+        FilterRegistrationBean<RequestLogSamplingFilter> registration =
+                new FilterRegistrationBean<>(new RequestLogSamplingFilter(sampleRate));
+        registration.addUrlPatterns("/api/v1/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
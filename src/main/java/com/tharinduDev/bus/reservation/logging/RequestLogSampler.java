@@ -0,0 +1,27 @@
+package com.tharinduDev.bus.reservation.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Per-request decision whether the request's INFO and lower logs are written. The decision is made once per
+// request so a sampled request keeps all of its lines together; SampledRequestTurboFilter enforces it.
+public final class RequestLogSampler {
+
+    private static final ThreadLocal<Boolean> SAMPLED_OUT = new ThreadLocal<>();
+
+    private RequestLogSampler() {
+    }
+
+    public static void begin(double sampleRate) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            SAMPLED_OUT.set(Boolean.TRUE);
+        }
+    }
+
+    public static void end() {
+        SAMPLED_OUT.remove();
+    }
+
+    public static boolean isSampledOut() {
+        return SAMPLED_OUT.get() != null;
+    }
+}
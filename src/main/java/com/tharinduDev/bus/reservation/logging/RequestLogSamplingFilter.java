@@ -0,0 +1,29 @@
+package com.tharinduDev.bus.reservation.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class RequestLogSamplingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+
+    public RequestLogSamplingFilter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestLogSampler.begin(sampleRate);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestLogSampler.end();
+        }
+    }
+}
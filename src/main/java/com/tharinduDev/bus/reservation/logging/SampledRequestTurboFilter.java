@@ -0,0 +1,20 @@
+package com.tharinduDev.bus.reservation.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+// Drops INFO and lower events of requests that RequestLogSampler sampled out, before any event object is built.
+// WARN and ERROR always pass. Registered in logback-spring.xml.
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return RequestLogSampler.isSampledOut() ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,49 @@
+package com.tharinduDev.bus.reservation.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Appends one JSON line per event; consumers de-duplicate on eventId
+@Component
+@ConditionalOnProperty(name = "reservation.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${reservation.outbox.file}") Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("eventId", event.getEventId());
+            line.put("eventType", event.getEventType());
+            line.put("aggregateId", event.getAggregateId());
+            line.put("aggregateVersion", event.getAggregateVersion());
+            line.put("payload", objectMapper.readTree(event.getPayload()));
+            lines.append(objectMapper.writeValueAsString(line)).append('\n');
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                StandardOpenOption.SYNC);
+    }
+}
@@ -0,0 +1,34 @@
+package com.tharinduDev.bus.reservation.outbox;
+
+import com.tharinduDev.bus.reservation.entity.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// In-process queue standing in for a message broker; drops redelivered events by event id
+@Component
+@ConditionalOnProperty(name = "reservation.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxEvent> queue = new LinkedBlockingQueue<>();
+    private final Set<String> deliveredEventIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            if (deliveredEventIds.add(event.getEventId())) {
+                queue.add(event);
+            }
+        }
+    }
+
+    public OutboxEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return queue.poll(timeout, unit);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tharinduDev.bus.reservation.outbox;
+
+import com.tharinduDev.bus.reservation.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "reservation.outbox.sink", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.debug("Reservation event {} {} for {}", event.getEventId(), event.getEventType(), event.getAggregateId());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tharinduDev.bus.reservation.outbox;
+
+import com.tharinduDev.bus.reservation.entity.OutboxEvent;
+import com.tharinduDev.bus.reservation.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Drains unpublished outbox events in id order (so per-reservation order is kept) and hands each batch to every
+// sink. Events are marked published only after all sinks accepted the batch: delivery is at-least-once.
+@Component
+@ConditionalOnProperty(name = "reservation.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks,
+                       @Value("${reservation.outbox.batch-size:100}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.outbox.poll-interval:500ms}")
+    public void relay() {
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                for (OutboxSink sink : sinks) {
+                    sink.publish(batch);
+                }
+            } catch (Exception ex) {
+                log.warn("Publishing {} outbox events failed, retrying on next run: {}", batch.size(), ex.getMessage());
+                return;
+            }
+            outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+            log.debug("Published {} outbox events", batch.size());
+        } while (batch.size() == batchSize);
+    }
+}
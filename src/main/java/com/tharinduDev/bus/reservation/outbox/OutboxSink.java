@@ -0,0 +1,12 @@
+package com.tharinduDev.bus.reservation.outbox;
+
+import com.tharinduDev.bus.reservation.entity.OutboxEvent;
+
+import java.util.List;
+
+// Destination for published outbox events. A batch either succeeds as a whole or is retried as a whole,
+// so sinks must tolerate duplicates (use OutboxEvent#getEventId to de-duplicate).
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,70 @@
+package com.tharinduDev.bus.reservation.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.entity.OutboxEvent;
+import com.tharinduDev.bus.reservation.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Writes reservation events into the outbox table as part of the booking transaction;
+// OutboxRelay publishes them to the sinks afterwards.
+@Component
+public class ReservationOutbox {
+
+    public static final String RESERVATION_CREATED = "ReservationCreated";
+    public static final String RESERVATION_CANCELLED = "ReservationCancelled";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReservationOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservationCreated(ReservationDetails reservation) {
+        outboxEventRepository.save(event(reservation, RESERVATION_CREATED, 1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservationCancelled(ReservationDetails reservation) {
+        outboxEventRepository.save(event(reservation, RESERVATION_CANCELLED, 2));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservationsCreated(List<ReservationDetails> reservations) {
+        List<OutboxEvent> events = new ArrayList<>(reservations.size());
+        for (ReservationDetails reservation : reservations) {
+            events.add(event(reservation, RESERVATION_CREATED, 1));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEvent event(ReservationDetails reservation, String eventType, int aggregateVersion) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setAggregateId(reservation.getReservationNumber());
+        event.setAggregateVersion(aggregateVersion);
+        event.setEventType(eventType);
+        event.setPayload(toJson(reservation));
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private String toJson(ReservationDetails reservation) {
+        try {
+            return objectMapper.writeValueAsString(reservation);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize reservation " + reservation.getReservationNumber(), ex);
+        }
+    }
+}
@@ -1,7 +1,36 @@
 package com.tharinduDev.bus.reservation.repository;
 
 import com.tharinduDev.bus.reservation.entity.Reservation;
+import com.tharinduDev.bus.reservation.enums.Location;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    Optional<Reservation> findByReservationNumber(String reservationNumber);
+
+    // the operator alone, without loading the reservation and its seats
+    @Query("select r.operatorId from Reservation r where r.reservationNumber = :reservationNumber")
+    Optional<String> findOperatorIdByReservationNumber(@Param("reservationNumber") String reservationNumber);
+
+    // next block of ReservationSequencer.RESERVATION_NUMBER_BLOCK reservation numbers
+    @Query(value = "SELECT NEXT VALUE FOR reservation_number_blocks", nativeQuery = true)
+    long nextReservationNumberBlock();
+
+    // served by ix_reservations_operator_journey
+    List<Reservation> findByOperatorIdAndFromLocationInAndToLocationIn(String operatorId,
+                                                                       Collection<Location> fromLocations,
+                                                                       Collection<Location> toLocations);
+
+    // the next reservations after afterId in id order, with their linked seat counts (keyset scan)
+    @Query("select r.id as id, r.reservationNumber as reservationNumber, r.passengerCount as passengerCount, "
+            + "count(s) as seatCount from Reservation r left join r.seats s where r.id > :afterId "
+            + "group by r.id, r.reservationNumber, r.passengerCount order by r.id")
+    List<ReservationSeatCount> findSeatCountsAfter(@Param("afterId") long afterId, Pageable page);
 }
@@ -0,0 +1,13 @@
+package com.tharinduDev.bus.reservation.repository;
+
+// Projection: a reservation's passenger count next to the number of seats linked to it
+public interface ReservationSeatCount {
+
+    Long getId();
+
+    String getReservationNumber();
+
+    Integer getPassengerCount();
+
+    Long getSeatCount();
+}
@@ -0,0 +1,13 @@
+package com.tharinduDev.bus.reservation.repository;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+
+// Projection: a seat and the journey of the reservation holding it
+public interface SeatOccupancy {
+
+    String getSeatNumber();
+
+    Location getFromLocation();
+
+    Location getToLocation();
+}
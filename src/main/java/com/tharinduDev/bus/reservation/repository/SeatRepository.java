@@ -2,8 +2,19 @@ package com.tharinduDev.bus.reservation.repository;
 
 import com.tharinduDev.bus.reservation.entity.Seat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 
 public interface SeatRepository extends JpaRepository<Seat, Long> {
 
+    List<Seat> findByOperatorIdAndSeatNumberIn(String operatorId, Collection<String> seatNumbers);
+
+    // occupied seats of the operator among seatNumbers, without loading reservations or seats as entities
+    @Query("select s.seatNumber as seatNumber, r.fromLocation as fromLocation, r.toLocation as toLocation "
+            + "from Seat s join s.reservation r where s.operatorId = :operatorId and s.seatNumber in :seatNumbers")
+    List<SeatOccupancy> findOccupancyByOperatorIdAndSeatNumberIn(@Param("operatorId") String operatorId,
+                                                                 @Param("seatNumbers") Collection<String> seatNumbers);
 }
@@ -0,0 +1,226 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.inventory.AvailabilityVersions;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.SeatInventory;
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import com.tharinduDev.bus.reservation.repository.ReservationSeatCount;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Background check of the cached inventory against the database, a few pieces per run so its cost stays bounded:
+// - seat blocks of each operator's bus (chunk-size seats each) are compared by checksum with the sequencer's
+//   in-memory inventory of that operator, chunks-per-run blocks at a time on parallelism threads. A block that differs the same way on two
+//   runs in a row is repaired by adding the missing bookings to the inventory, or flagged when the inventory
+//   holds bookings the database does not; a single difference may just be a batch being persisted.
+// - reservations are walked in id order, reservations-per-run at a time, and flagged when the number of seats
+//   linked to them differs from their passenger count.
+// Reads go through small indexed queries, never a full findAll, and nothing is locked: repairs run on the
+// sequencer's writer thread between two batches and only if the block has not changed since it was compared.
+@Slf4j
+@Component
+public class InventoryReconciler {
+
+    private static final long SEQUENCER_TIMEOUT_SECONDS = 5;
+
+    private final ReservationSequencer reservationSequencer;
+    private final SeatRepository seatRepository;
+    private final ReservationRepository reservationRepository;
+    private final BusLayouts busLayouts;
+    private final RouteCatalog routeCatalog;
+    private final AvailabilityVersions availabilityVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int chunksPerRun;
+    private final int reservationsPerRun;
+    private final ExecutorService scanners;
+
+    private final Counter matchedChunks;
+    private final Counter repairedChunks;
+    private final Counter flaggedChunks;
+    private final Counter flaggedReservations;
+
+    // difference seen in each block on the last run, to tell settled drift from a batch in flight
+    private final Map<SeatBlock, Long> differences = new ConcurrentHashMap<>();
+    // difference last flagged in each block, so a block that stays flagged is reported once
+    private final Map<SeatBlock, Long> flaggedDifferences = new ConcurrentHashMap<>();
+    private final Set<Long> inconsistentReservations = ConcurrentHashMap.newKeySet();
+    // scan positions, only used by the scheduler thread; blocks are numbered across operators
+    private int nextChunk;
+    private long lastReservationId;
+
+    public InventoryReconciler(ObjectProvider<ReservationSequencer> reservationSequencer,
+                               SeatRepository seatRepository, ReservationRepository reservationRepository,
+                               BusLayouts busLayouts, RouteCatalog routeCatalog,
+                               AvailabilityVersions availabilityVersions,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                               @Value("${reservation.reconciliation.chunk-size:8}") int chunkSize,
+                               @Value("${reservation.reconciliation.chunks-per-run:2}") int chunksPerRun,
+                               @Value("${reservation.reconciliation.parallelism:2}") int parallelism,
+                               @Value("${reservation.reconciliation.reservations-per-run:500}") int reservationsPerRun) {
+        this.reservationSequencer = reservationSequencer.getIfAvailable();
+        this.seatRepository = seatRepository;
+        this.reservationRepository = reservationRepository;
+        this.busLayouts = busLayouts;
+        this.routeCatalog = routeCatalog;
+        this.availabilityVersions = availabilityVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.chunksPerRun = chunksPerRun;
+        this.reservationsPerRun = reservationsPerRun;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scanners = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-reconciler-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        this.matchedChunks = chunkCounter(meterRegistry, "match");
+        this.repairedChunks = chunkCounter(meterRegistry, "repaired");
+        this.flaggedChunks = chunkCounter(meterRegistry, "flagged");
+        this.flaggedReservations = Counter.builder("reservation.reconciliation.reservations.flagged")
+                .register(meterRegistry);
+        meterRegistry.gauge("reservation.reconciliation.reservations.inconsistent", inconsistentReservations, Set::size);
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.reconciliation.interval:5s}",
+            initialDelayString = "${reservation.reconciliation.interval:5s}")
+    public void reconcile() {
+        if (reservationSequencer != null && reservationSequencer.isRunning()) {
+            scanSeatBlocks();
+        }
+        scanReservations();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanners.shutdownNow();
+    }
+
+    // the next chunksPerRun blocks, operator after operator, in parallel
+    void scanSeatBlocks() {
+        BusLayout layout = busLayouts.active();
+        List<String> operators = routeCatalog.operators();
+        int chunksPerOperator = (layout.size() + chunkSize - 1) / chunkSize;
+        int chunks = chunksPerOperator * operators.size();
+        if (chunks == 0) {
+            return;
+        }
+        int count = Math.min(chunksPerRun, chunks);
+        List<CompletableFuture<Void>> scans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int chunk = (nextChunk + i) % chunks;
+            SeatBlock block = new SeatBlock(operators.get(chunk / chunksPerOperator), chunk % chunksPerOperator);
+            scans.add(CompletableFuture.runAsync(() -> scanSeatBlock(layout, block), scanners));
+        }
+        nextChunk = (nextChunk + count) % chunks;
+        try {
+            CompletableFuture.allOf(scans.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            log.warn("Inventory reconciliation of seat blocks failed, retried on the next run", ex.getCause());
+        }
+    }
+
+    private void scanSeatBlock(BusLayout layout, SeatBlock block) {
+        String operator = block.operatorId();
+        int from = block.chunk() * chunkSize;
+        int to = Math.min(from + chunkSize, layout.size());
+
+        long cachedChecksum = reservationSequencer.occupancyChecksum(operator, from, to)
+                .orTimeout(SEQUENCER_TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+        // read-write on purpose: a read-only transaction may be served by a lagging replica
+        List<String> seatNumbers = layout.seatNumbers().subList(from, to);
+        SeatInventory persisted = transactionTemplate.execute(status -> SeatInventory.fromOccupancy(layout,
+                seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(operator, seatNumbers)));
+        int[] persistedSegments = new int[to - from];
+        for (int i = from; i < to; i++) {
+            persistedSegments[i - from] = persisted.occupiedSegments(i);
+        }
+        long persistedChecksum = persisted.checksum(from, to);
+
+        if (cachedChecksum == persistedChecksum) {
+            differences.remove(block);
+            flaggedDifferences.remove(block);
+            matchedChunks.increment();
+            return;
+        }
+        long difference = cachedChecksum * 31 + persistedChecksum;
+        Long previous = differences.put(block, difference);
+        if (previous == null || previous != difference) {
+            log.debug("Seats {} to {} of operator {} differ from the database, checked again on the next pass",
+                    layout.seatNumber(from), layout.seatNumber(to - 1), operator);
+            return;
+        }
+
+        int changedSegments = reservationSequencer.repairOccupancy(operator, from, cachedChecksum, persistedSegments)
+                .orTimeout(SEQUENCER_TIMEOUT_SECONDS, TimeUnit.SECONDS).join();
+        if (changedSegments < 0) {
+            // booked in the meantime, compared again on the next pass
+            differences.remove(block);
+        } else if (changedSegments > 0) {
+            availabilityVersions.changed(operator, changedSegments);
+            repairedChunks.increment();
+            log.warn("Seats {} to {} of operator {} were missing bookings held in the database, added to the "
+                    + "sequencer inventory", layout.seatNumber(from), layout.seatNumber(to - 1), operator);
+        } else if (!Long.valueOf(difference).equals(flaggedDifferences.put(block, difference))) {
+            flaggedChunks.increment();
+            log.warn("Seats {} to {} of operator {} hold bookings in the sequencer inventory that the database "
+                    + "does not", layout.seatNumber(from), layout.seatNumber(to - 1), operator);
+        }
+    }
+
+    // the next reservationsPerRun reservations by id, back to the start after the last one
+    void scanReservations() {
+        List<ReservationSeatCount> batch = transactionTemplate.execute(status ->
+                reservationRepository.findSeatCountsAfter(lastReservationId, PageRequest.of(0, reservationsPerRun)));
+        for (ReservationSeatCount reservation : batch) {
+            if (reservation.getSeatCount() == reservation.getPassengerCount().longValue()) {
+                inconsistentReservations.remove(reservation.getId());
+            } else if (inconsistentReservations.add(reservation.getId())) {
+                flaggedReservations.increment();
+                log.warn("Reservation {} holds {} seats for {} passengers", reservation.getReservationNumber(),
+                        reservation.getSeatCount(), reservation.getPassengerCount());
+            }
+        }
+        lastReservationId = batch.size() < reservationsPerRun ? 0 : batch.get(batch.size() - 1).getId();
+    }
+
+    int inconsistentReservations() {
+        return inconsistentReservations.size();
+    }
+
+    // chunk-size seats of one operator's bus
+    private record SeatBlock(String operatorId, int chunk) {
+    }
+
+    private static Counter chunkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("reservation.reconciliation.seat-blocks")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
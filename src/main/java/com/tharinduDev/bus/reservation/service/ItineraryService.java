@@ -0,0 +1,110 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.dto.ItineraryLeg;
+import com.tharinduDev.bus.reservation.dto.ItineraryOption;
+import com.tharinduDev.bus.reservation.dto.ItinerarySearchReport;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.SeatInventory;
+import com.tharinduDev.bus.reservation.inventory.SegmentCapacity;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import com.tharinduDev.bus.reservation.inventory.TransferIndex;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+public class ItineraryService {
+
+    // options returned per search; the index is ordered, so the search stops once this many fit
+    static final int MAX_OPTIONS = 5;
+
+    private final RouteCatalog routeCatalog;
+    private final BusLayouts busLayouts;
+    private final SeatRepository seatRepository;
+    private final SegmentCapacity segmentCapacity;
+
+    public ItineraryService(RouteCatalog routeCatalog, BusLayouts busLayouts,
+                            SeatRepository seatRepository, SegmentCapacity segmentCapacity) {
+        this.routeCatalog = routeCatalog;
+        this.busLayouts = busLayouts;
+        this.seatRepository = seatRepository;
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    // direct and 1 or 2 transfer journeys with enough free seats on every leg, cheapest first.
+    // Passengers may change seat at a transfer, so this also finds journeys no single seat can cover.
+    @Transactional(readOnly = true)
+    public ItinerarySearchReport searchItineraries(TicketInquiry request) {
+
+        log.info("Searching itineraries {} -> {} for {} passengers",
+                request.getOrigin(), request.getDestination(), request.getPassengerCount());
+
+        ReservationService.validateLocations(request);
+
+        String operatorId = request.operatorOrDefault();
+        TransferIndex index = routeCatalog.transferIndex(operatorId);
+        if (index.itineraries(request.getOrigin(), request.getDestination()).isEmpty()) {
+            throw ReservationService.routeNotFound(request);
+        }
+
+        // journeys with a leg the segment counters rule out are dropped before any seat is read
+        List<List<Route>> candidates = index.itineraries(request.getOrigin(), request.getDestination(),
+                leg -> segmentCapacity.canFit(operatorId, SegmentMask.of(leg.getFromLocation(), leg.getToLocation()),
+                        request.getPassengerCount()));
+        if (candidates.isEmpty()) {
+            log.info("Itinerary search complete: every journey from {} to {} has a leg without {} free seats",
+                    request.getOrigin(), request.getDestination(), request.getPassengerCount());
+            return new ItinerarySearchReport(request.getOrigin(), request.getDestination(),
+                    request.getPassengerCount(), List.of());
+        }
+
+        BusLayout layout = busLayouts.active();
+        SeatInventory snapshot = SeatInventory.fromOccupancy(layout,
+                seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(operatorId, layout.seatNumbers()));
+        BigDecimal passengerCount = BigDecimal.valueOf(request.getPassengerCount());
+
+        List<ItineraryOption> options = new ArrayList<>();
+        for (List<Route> candidate : candidates) {
+            List<ItineraryLeg> legs = fittingLegs(candidate, snapshot, request.getPassengerCount());
+            if (legs == null) {
+                continue;
+            }
+            BigDecimal pricePerSeat = TransferIndex.pricePerSeat(candidate);
+            options.add(new ItineraryOption(legs.size() - 1, pricePerSeat, pricePerSeat.multiply(passengerCount), legs));
+            if (options.size() == MAX_OPTIONS) {
+                break;
+            }
+        }
+
+        log.info("Itinerary search complete: {} of {} candidate journeys fit {} passengers from {} to {}",
+                options.size(), candidates.size(), request.getPassengerCount(),
+                request.getOrigin(), request.getDestination());
+
+        return new ItinerarySearchReport(request.getOrigin(), request.getDestination(),
+                request.getPassengerCount(), options);
+    }
+
+    // null as soon as one leg is short of seats
+    private static List<ItineraryLeg> fittingLegs(List<Route> candidate, SeatInventory snapshot, int passengerCount) {
+        List<ItineraryLeg> legs = new ArrayList<>(candidate.size());
+        for (Route route : candidate) {
+            int mask = SegmentMask.of(route.getFromLocation(), route.getToLocation());
+            if (snapshot.available(mask) < passengerCount) {
+                return null;
+            }
+            List<String> availableSeatNumbers = snapshot.availableSeatNumbers(mask);
+            legs.add(new ItineraryLeg(route.getFromLocation(), route.getToLocation(), route.getPrice(),
+                    availableSeatNumbers.size(), availableSeatNumbers));
+        }
+        return legs;
+    }
+}
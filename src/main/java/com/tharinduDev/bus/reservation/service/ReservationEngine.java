@@ -0,0 +1,49 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionException;
+
+// The one way into booking, whichever engine reservation.engine.mode selects: the single-writer
+// ReservationSequencer when it is present, ReservationService.reserveTickets otherwise. Every booking entry
+// point (REST, gRPC, waitlist) goes through here; a booking made around the sequencer is invisible to its
+// in-memory inventory, which would then sell the same seats again.
+@Component
+public class ReservationEngine {
+
+    private final ReservationService reservationService;
+    // only present when reservation.engine.mode=sequencer
+    private final ReservationSequencer reservationSequencer;
+
+    public ReservationEngine(ReservationService reservationService,
+                             ObjectProvider<ReservationSequencer> reservationSequencer) {
+        this.reservationService = reservationService;
+        this.reservationSequencer = reservationSequencer.getIfAvailable();
+    }
+
+    public ReservationDetails reserve(ReservationInquiry request) {
+        return reservationSequencer != null
+                ? reservationSequencer.reserve(request)
+                : reservationService.reserveTickets(request);
+    }
+
+    // Runs the booking path of the active engine without keeping the booking, to warm it up: the transactional
+    // booking is rolled back, the sequencer allocates the seats and gives them back without persisting them.
+    public void rehearse(ReservationInquiry request) {
+        if (reservationSequencer != null) {
+            try {
+                reservationSequencer.rehearse(request).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+            return;
+        }
+        reservationService.rehearseReservation(request);
+    }
+}
@@ -0,0 +1,619 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.datasource.ReadYourWrites;
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.entity.Reservation;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.exception.BookingQueueFullException;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.OffHeapOccupancyStore;
+import com.tharinduDev.bus.reservation.inventory.SeatsReleasedEvent;
+import com.tharinduDev.bus.reservation.inventory.SeatsReservedEvent;
+import com.tharinduDev.bus.reservation.inventory.SegmentCapacity;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import com.tharinduDev.bus.reservation.outbox.ReservationOutbox;
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Single-writer booking engine (reservation.engine.mode=sequencer). Request threads publish reservation commands
+// into a pre-allocated ring buffer; one writer thread applies them in order to the seat occupancy of the booked
+// operator's bus, held off-heap in an OffHeapOccupancyStore, and
+// persists each drained batch in a single transaction before completing the callers' futures; when that
+// transaction fails, the batch's bookings are persisted one at a time so only the bad one fails. Seat allocation
+// therefore never contends on locks or on the database. A request that finds the ring full waits up to
+// submit-timeout for a slot and is then turned away.
+@Component
+@ConditionalOnProperty(name = "reservation.engine.mode", havingValue = "sequencer")
+@Slf4j
+public class ReservationSequencer implements SmartLifecycle {
+
+    // started before the web server opens its port (DEFAULT_PHASE - 2048) and stopped after it has closed,
+    // so no request arrives while the sequencer is not running
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long IDLE_PARK_NANOS = 50_000;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000;
+    // claimedSequence once the writer has stopped; no slot can be claimed after that
+    private static final long CLOSED = Long.MIN_VALUE;
+    private static final DateTimeFormatter RESERVATION_NUMBER_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // reservation numbers taken from the database per block, see ReservationRepository.nextReservationNumberBlock
+    static final long RESERVATION_NUMBER_BLOCK = 1000;
+
+    private final RouteRepository routeRepository;
+    private final SeatRepository seatRepository;
+    private final SeatCatalog seatCatalog;
+    private final ReservationRepository reservationRepository;
+    private final ReservationOutbox reservationOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SegmentCapacity segmentCapacity;
+    private final BusLayouts busLayouts;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long submitTimeoutNanos;
+
+    private final ReservationCommand[] ring;
+    private final int indexMask;
+    // sequence currently published in each slot, -1 while the slot has never been written
+    private final AtomicLongArray publishedSequences;
+    private final AtomicLong claimedSequence = new AtomicLong(-1);
+    // last sequence the writer has finished with; slots up to here may be reused by producers
+    private volatile long consumedSequence = -1;
+
+    private volatile boolean running;
+    // reload not yet picked up by the writer, shared by everyone who asks for one before it is
+    private final AtomicReference<CompletableFuture<Void>> pendingReload = new AtomicReference<>();
+    // reads and repairs of the inventory for other threads, run by the writer between two batches
+    private final Queue<Runnable> writerTasks = new ConcurrentLinkedQueue<>();
+    private Thread writerThread;
+
+    // owned by the writer thread: the bus of each operator with routes is one departure of the store, and
+    // departures indexes them by operator
+    private OffHeapOccupancyStore occupancy;
+    private Map<String, Integer> departures = Map.of();
+    // operator -> origin -> destination
+    private Map<String, Map<Location, Map<Location, Route>>> routes;
+    // next reservation number of the current block, and the first one past it
+    private long nextReservationNumber;
+    private long reservationNumberLimit;
+
+    public ReservationSequencer(RouteRepository routeRepository, SeatRepository seatRepository,
+                                SeatCatalog seatCatalog, ReservationRepository reservationRepository,
+                                ReservationOutbox reservationOutbox, ApplicationEventPublisher eventPublisher,
+                                SegmentCapacity segmentCapacity, BusLayouts busLayouts,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${reservation.engine.ring-size:1024}") int ringSize,
+                                @Value("${reservation.engine.max-batch-size:64}") int maxBatchSize,
+                                @Value("${reservation.engine.submit-timeout:1s}") Duration submitTimeout) {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("reservation.engine.ring-size must be a power of two: " + ringSize);
+        }
+        this.routeRepository = routeRepository;
+        this.seatRepository = seatRepository;
+        this.seatCatalog = seatCatalog;
+        this.reservationRepository = reservationRepository;
+        this.reservationOutbox = reservationOutbox;
+        this.eventPublisher = eventPublisher;
+        this.segmentCapacity = segmentCapacity;
+        this.busLayouts = busLayouts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = Math.min(maxBatchSize, ringSize);
+        this.submitTimeoutNanos = submitTimeout.toNanos();
+
+        this.ring = new ReservationCommand[ringSize];
+        this.indexMask = ringSize - 1;
+        this.publishedSequences = new AtomicLongArray(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            ring[i] = new ReservationCommand();
+            publishedSequences.set(i, -1);
+        }
+    }
+
+    public CompletableFuture<ReservationDetails> submit(ReservationInquiry request) {
+        return submit(request, false);
+    }
+
+    // Runs a booking through the ring without keeping it: seats are allocated and given back by the writer,
+    // nothing is persisted. Used to warm up the booking path.
+    public CompletableFuture<ReservationDetails> rehearse(ReservationInquiry request) {
+        return submit(request, true);
+    }
+
+    private CompletableFuture<ReservationDetails> submit(ReservationInquiry request, boolean rehearsal) {
+        if (!running) {
+            return CompletableFuture.failedFuture(notRunning());
+        }
+        // sold-out journeys do not take a ring slot
+        String operatorId = request.operatorOrDefault();
+        int segmentMask = SegmentMask.of(request.getOrigin(), request.getDestination());
+        if (!segmentCapacity.canFit(operatorId, segmentMask, request.getPassengerCount())) {
+            return CompletableFuture.failedFuture(ReservationService.notEnoughSeats(request.getPassengerCount(),
+                    segmentCapacity.available(operatorId, segmentMask)));
+        }
+        long sequence = claim();
+        if (sequence == CLOSED) {
+            return CompletableFuture.failedFuture(notRunning());
+        }
+        if (sequence < 0) {
+            log.warn("Reservation ring stayed full for {} ms, rejecting {} -> {}",
+                    TimeUnit.NANOSECONDS.toMillis(submitTimeoutNanos), request.getOrigin(), request.getDestination());
+            return CompletableFuture.failedFuture(
+                    new BookingQueueFullException("Too many reservations in progress, please retry later"));
+        }
+        CompletableFuture<ReservationDetails> future = new CompletableFuture<>();
+        int index = (int) (sequence & indexMask);
+        ring[index].publish(request, future, rehearsal);
+        publishedSequences.set(index, sequence);
+        return future;
+    }
+
+    // blocking variant for request threads; rethrows the original booking exception
+    public ReservationDetails reserve(ReservationInquiry request) {
+        try {
+            ReservationDetails details = submit(request).join();
+            // the write happened on the sequencer thread, credit it to the calling client
+            ReadYourWrites.markWrite();
+            return details;
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Reloads routes and seat occupancy from the database between two batches. Callers that ask before the
+    // writer picks the reload up share it; later callers get a new one, since a running reload may have read the
+    // database before their change committed.
+    public CompletableFuture<Void> reloadInventory() {
+        CompletableFuture<Void> reload = pendingReload.updateAndGet(
+                pending -> pending != null ? pending : new CompletableFuture<>());
+        if (claimedSequence.get() == CLOSED) {
+            reload.completeExceptionally(notRunning());
+        }
+        return reload;
+    }
+
+    // checksum of the occupancy of the operator's seats [fromSeat, toSeat), see SeatInventory.checksum
+    public CompletableFuture<Long> occupancyChecksum(String operatorId, int fromSeat, int toSeat) {
+        CompletableFuture<Long> checksum = new CompletableFuture<>();
+        addWriterTask(checksum, () -> checksum.complete(
+                occupancy.checksum(departure(operatorId), fromSeat, toSeat)));
+        return checksum;
+    }
+
+    // Adds the segments in occupiedSegments to the operator's seats fromSeat.. if their occupancy still has
+    // expectedChecksum, and returns the segments that changed, or -1 when the seats changed since the checksum
+    // was taken. Never frees a seat: occupancy the database does not know about may be a booking it lost, not
+    // a stale one.
+    public CompletableFuture<Integer> repairOccupancy(String operatorId, int fromSeat, long expectedChecksum,
+                                                      int[] occupiedSegments) {
+        CompletableFuture<Integer> repair = new CompletableFuture<>();
+        addWriterTask(repair, () -> {
+            int departure = departure(operatorId);
+            if (occupancy.checksum(departure, fromSeat, fromSeat + occupiedSegments.length) != expectedChecksum) {
+                repair.complete(-1);
+                return;
+            }
+            int changedSegments = 0;
+            for (int i = 0; i < occupiedSegments.length; i++) {
+                changedSegments |= occupiedSegments[i] & ~occupancy.occupiedSegments(departure, fromSeat + i);
+                occupancy.addSegments(departure, fromSeat + i, occupiedSegments[i]);
+            }
+            repair.complete(changedSegments);
+        });
+        return repair;
+    }
+
+    // cancellations go through ReservationService; ordered first so the reload is queued before any
+    // waitlist booking the same release triggers
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        reloadInventory();
+    }
+
+    @Override
+    public void start() {
+        loadInventory();
+        // reopens the ring after a stop
+        claimedSequence.set(consumedSequence);
+        running = true;
+        writerThread = new Thread(this::runWriter, "reservation-sequencer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Reservation sequencer started with ring size {} and batches of up to {}", ring.length, maxBatchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(5_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void loadInventory() {
+        // read-write on purpose: read-only transactions may be served by a lagging replica
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Map<Location, Map<Location, Route>>> loadedRoutes = new HashMap<>();
+            for (Route route : routeRepository.findAll()) {
+                loadedRoutes.computeIfAbsent(route.getOperatorId(), operator -> new EnumMap<>(Location.class))
+                        .computeIfAbsent(route.getFromLocation(), from -> new EnumMap<>(Location.class))
+                        .put(route.getToLocation(), route);
+            }
+            routes = loadedRoutes;
+            seatCatalog.ensureSeats(loadedRoutes.keySet());
+            BusLayout layout = busLayouts.active();
+            List<String> operators = loadedRoutes.keySet().stream().sorted().toList();
+            // a fresh store, so a reload that fails half-way leaves the previous one in use; commands allocated
+            // from the previous store keep it until they complete
+            OffHeapOccupancyStore loadedOccupancy =
+                    OffHeapOccupancyStore.allocate(layout, Math.max(1, operators.size()));
+            Map<String, Integer> loadedDepartures = new HashMap<>();
+            for (int departure = 0; departure < operators.size(); departure++) {
+                String operator = operators.get(departure);
+                loadedOccupancy.loadOccupancy(departure,
+                        seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(operator, layout.seatNumbers()));
+                loadedDepartures.put(operator, departure);
+            }
+            occupancy = loadedOccupancy;
+            departures = loadedDepartures;
+        });
+        log.info("Sequencer inventory loaded: {} operators, {} seats each, layout {}",
+                departures.size(), busLayouts.active().size(), busLayouts.active().name());
+    }
+
+    // writer thread only
+    private int departure(String operatorId) {
+        Integer departure = departures.get(operatorId);
+        if (departure == null) {
+            throw new IllegalArgumentException("No seat inventory for operator " + operatorId);
+        }
+        return departure;
+    }
+
+    // Claims the next ring slot, backing off while the ring is full. Returns -1 when the ring stayed full for
+    // submit-timeout, and CLOSED once the sequencer is stopping. The writer closes the ring with a
+    // compare-and-set on the same counter, so a slot is either claimed before that and drained, or not at all.
+    private long claim() {
+        long deadline = System.nanoTime() + submitTimeoutNanos;
+        long backoff = IDLE_PARK_NANOS;
+        while (true) {
+            long current = claimedSequence.get();
+            if (current == CLOSED || !running) {
+                return CLOSED;
+            }
+            if (current + 1 - ring.length > consumedSequence) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return -1;
+                }
+                LockSupport.parkNanos(Math.min(backoff, remaining));
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            } else if (claimedSequence.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    private void addWriterTask(CompletableFuture<?> result, Runnable task) {
+        writerTasks.add(task);
+        if (claimedSequence.get() == CLOSED) {
+            result.completeExceptionally(notRunning());
+        }
+    }
+
+    private void runWriter() {
+        long next = consumedSequence + 1;
+        while (true) {
+            CompletableFuture<Void> reload = pendingReload.getAndSet(null);
+            if (reload != null) {
+                try {
+                    loadInventory();
+                    reload.complete(null);
+                } catch (RuntimeException ex) {
+                    reload.completeExceptionally(ex);
+                }
+            }
+            runWriterTasks();
+
+            int count = 0;
+            while (count < maxBatchSize && publishedSequences.get((int) ((next + count) & indexMask)) == next + count) {
+                count++;
+            }
+            if (count == 0) {
+                // stopping, and every claimed slot has been applied: close the ring and exit
+                if (!running && claimedSequence.compareAndSet(next - 1, CLOSED)) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            for (int i = 0; i < count; i++) {
+                apply(ring[(int) ((next + i) & indexMask)]);
+            }
+            persist(next, count);
+            for (int i = 0; i < count; i++) {
+                ring[(int) ((next + i) & indexMask)].complete();
+            }
+
+            next += count;
+            consumedSequence = next - 1;
+        }
+
+        CompletableFuture<Void> reload = pendingReload.getAndSet(null);
+        if (reload != null) {
+            reload.completeExceptionally(notRunning());
+        }
+        runWriterTasks();
+    }
+
+    private void runWriterTasks() {
+        Runnable task;
+        while ((task = writerTasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                log.warn("Sequencer inventory task failed", ex);
+            }
+        }
+    }
+
+    private static IllegalStateException notRunning() {
+        return new IllegalStateException("Reservation sequencer is not running");
+    }
+
+    // validation and seat allocation against the in-memory inventory, same rules as ReservationService
+    private void apply(ReservationCommand command) {
+        ReservationInquiry request = command.request;
+        try {
+            ReservationService.validateLocations(request);
+
+            Route route = routes.getOrDefault(request.operatorOrDefault(), Map.of())
+                    .getOrDefault(request.getOrigin(), Map.of()).get(request.getDestination());
+            if (route == null) {
+                throw ReservationService.routeNotFound(request);
+            }
+            ReservationService.validatePriceConfirmation(route, request);
+
+            int departure = departure(route.getOperatorId());
+            int segmentMask = SegmentMask.of(request.getOrigin(), request.getDestination());
+            int passengerCount = request.getPassengerCount();
+            command.ensureCapacity(occupancy, departure, passengerCount);
+            if (!occupancy.allocate(departure, segmentMask, passengerCount, command.seatIndexes)) {
+                throw ReservationService.notEnoughSeats(passengerCount, occupancy.available(departure, segmentMask));
+            }
+            command.allocated(segmentMask, passengerCount,
+                    route.getPrice().multiply(BigDecimal.valueOf(passengerCount)), route.getOperatorId(),
+                    "RES-" + LocalDateTime.now().format(RESERVATION_NUMBER_TIME) + "-" + nextReservationNumber());
+            if (command.rehearsal) {
+                occupancy.release(departure, segmentMask, passengerCount, command.seatIndexes);
+            }
+        } catch (RuntimeException ex) {
+            command.failure = ex;
+        }
+    }
+
+    // Unique across restarts and instances: the database hands out blocks of numbers, so the writer only goes to
+    // it once per RESERVATION_NUMBER_BLOCK bookings. Numbers left in a block at shutdown are skipped.
+    private long nextReservationNumber() {
+        if (nextReservationNumber == reservationNumberLimit) {
+            // read-write, the sequence is only advanced on the primary
+            Long block = transactionTemplate.execute(status -> reservationRepository.nextReservationNumberBlock());
+            nextReservationNumber = block * RESERVATION_NUMBER_BLOCK;
+            reservationNumberLimit = nextReservationNumber + RESERVATION_NUMBER_BLOCK;
+        }
+        return nextReservationNumber++;
+    }
+
+    private void persist(long firstSequence, int count) {
+        List<ReservationCommand> allocated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ReservationCommand command = ring[(int) ((firstSequence + i) & indexMask)];
+            if (command.failure == null && !command.rehearsal) {
+                allocated.add(command);
+            }
+        }
+        if (allocated.isEmpty()) {
+            return;
+        }
+
+        try {
+            persist(allocated);
+        } catch (RuntimeException ex) {
+            if (allocated.size() == 1) {
+                fail(allocated.get(0), ex);
+                return;
+            }
+            // one bad booking must not cost the others theirs: persist them one at a time
+            log.warn("Failed to persist batch of {} reservations, retrying them one by one", allocated.size(), ex);
+            for (ReservationCommand command : allocated) {
+                try {
+                    persist(List.of(command));
+                } catch (RuntimeException commandEx) {
+                    fail(command, commandEx);
+                }
+            }
+        }
+    }
+
+    private void fail(ReservationCommand command, RuntimeException ex) {
+        log.error("Failed to persist reservation {}, releasing its seats", command.reservationNumber, ex);
+        command.occupancy.release(command.departure, command.segmentMask, command.seatCount, command.seatIndexes);
+        command.failure = ex;
+    }
+
+    private void persist(List<ReservationCommand> allocated) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // one seat query per operator in the batch
+            Map<String, List<String>> seatNumbers = new HashMap<>();
+            for (ReservationCommand command : allocated) {
+                List<String> operatorSeatNumbers = seatNumbers.computeIfAbsent(command.operatorId,
+                        operator -> new ArrayList<>());
+                for (int i = 0; i < command.seatCount; i++) {
+                    operatorSeatNumbers.add(command.seatNumber(i));
+                }
+            }
+            Map<String, Map<String, Seat>> seatsByNumber = new HashMap<>();
+            seatNumbers.forEach((operator, numbers) -> seatsByNumber.put(operator,
+                    seatRepository.findByOperatorIdAndSeatNumberIn(operator, numbers).stream()
+                            .collect(Collectors.toMap(Seat::getSeatNumber, Function.identity()))));
+
+            List<Reservation> reservations = new ArrayList<>(allocated.size());
+            List<ReservationDetails> events = new ArrayList<>(allocated.size());
+            for (ReservationCommand command : allocated) {
+                Reservation reservation = new Reservation();
+                reservation.setReservationNumber(command.reservationNumber);
+                reservation.setFromLocation(command.request.getOrigin());
+                reservation.setToLocation(command.request.getDestination());
+                reservation.setPassengerCount(command.seatCount);
+                reservation.setTotalPrice(command.totalPrice);
+                reservation.setOperatorId(command.operatorId);
+                Map<String, Seat> operatorSeats = seatsByNumber.get(command.operatorId);
+                for (int i = 0; i < command.seatCount; i++) {
+                    Seat seat = operatorSeats.get(command.seatNumber(i));
+                    seat.setReservation(reservation);
+                    reservation.getSeats().add(seat);
+                }
+                reservations.add(reservation);
+                events.add(command.details());
+            }
+            reservationRepository.saveAll(reservations);
+            reservationOutbox.reservationsCreated(events);
+            for (ReservationCommand command : allocated) {
+                ReservationDetails details = command.details();
+                eventPublisher.publishEvent(new SeatsReservedEvent(details.getReservationNumber(), command.operatorId,
+                        details.getDepartureLocation(), details.getArrivalLocation(), details.getSeatNumbers()));
+            }
+        });
+    }
+
+    // one pre-allocated ring slot, reused for every lap of the ring
+    private final class ReservationCommand {
+
+        private ReservationInquiry request;
+        private CompletableFuture<ReservationDetails> future;
+        private boolean rehearsal;
+        // store and departure of the booked operator's bus, set when its seats are allocated
+        private OffHeapOccupancyStore occupancy;
+        private int departure;
+        private int[] seatIndexes = new int[0];
+        private int seatCount;
+        private int segmentMask;
+        private BigDecimal totalPrice;
+        private String operatorId;
+        private String reservationNumber;
+        private RuntimeException failure;
+        private ReservationDetails details;
+
+        void publish(ReservationInquiry request, CompletableFuture<ReservationDetails> future, boolean rehearsal) {
+            this.request = request;
+            this.future = future;
+            this.rehearsal = rehearsal;
+            this.seatCount = 0;
+            this.failure = null;
+        }
+
+        void ensureCapacity(OffHeapOccupancyStore occupancy, int departure, int passengerCount) {
+            this.occupancy = occupancy;
+            this.departure = departure;
+            if (seatIndexes.length < passengerCount) {
+                seatIndexes = new int[Math.max(passengerCount, occupancy.seatsPerDeparture())];
+            }
+        }
+
+        void allocated(int segmentMask, int seatCount, BigDecimal totalPrice, String operatorId,
+                       String reservationNumber) {
+            this.segmentMask = segmentMask;
+            this.seatCount = seatCount;
+            this.totalPrice = totalPrice;
+            this.operatorId = operatorId;
+            this.reservationNumber = reservationNumber;
+        }
+
+        void complete() {
+            CompletableFuture<ReservationDetails> callerFuture = future;
+            if (failure != null) {
+                callerFuture.completeExceptionally(failure);
+            } else if (rehearsal) {
+                callerFuture.complete(details());
+            } else {
+                ReservationDetails reservationDetails = details();
+                log.info("Reservation successful!. Reservation number: {}, Seats: {}, Total price: Rs. {}",
+                        reservationNumber, reservationDetails.getSeatNumbers(), totalPrice);
+                callerFuture.complete(reservationDetails);
+            }
+            request = null;
+            future = null;
+            failure = null;
+            details = null;
+            occupancy = null;
+        }
+
+        ReservationDetails details() {
+            if (details == null) {
+                List<String> seatNumbers = new ArrayList<>(seatCount);
+                for (int i = 0; i < seatCount; i++) {
+                    seatNumbers.add(seatNumber(i));
+                }
+                details = new ReservationDetails(reservationNumber, seatNumbers, request.getOrigin(),
+                        request.getDestination(), totalPrice);
+            }
+            return details;
+        }
+
+        String seatNumber(int i) {
+            return occupancy.layout().seatNumber(seatIndexes[i]);
+        }
+    }
+}
@@ -1,46 +1,83 @@
 package com.tharinduDev.bus.reservation.service;
 
 
+import com.tharinduDev.bus.reservation.diagnostics.ReservationPhaseEvent;
 import com.tharinduDev.bus.reservation.dto.*;
 import com.tharinduDev.bus.reservation.entity.Reservation;
 import com.tharinduDev.bus.reservation.entity.Route;
 import com.tharinduDev.bus.reservation.entity.Seat;
-import com.tharinduDev.bus.reservation.enums.Location;
 import com.tharinduDev.bus.reservation.exception.InvalidReservationException;
 import com.tharinduDev.bus.reservation.exception.NoSeatsAvailableException;
+import com.tharinduDev.bus.reservation.exception.ReservationNotFoundException;
 import com.tharinduDev.bus.reservation.exception.RouteNotFoundException;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.SeatInventory;
+import com.tharinduDev.bus.reservation.inventory.SeatsReleasedEvent;
+import com.tharinduDev.bus.reservation.inventory.SeatsReservedEvent;
+import com.tharinduDev.bus.reservation.inventory.SegmentCapacity;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import com.tharinduDev.bus.reservation.outbox.ReservationOutbox;
 import com.tharinduDev.bus.reservation.repository.ReservationRepository;
-import com.tharinduDev.bus.reservation.repository.RouteRepository;
 import com.tharinduDev.bus.reservation.repository.SeatRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class ReservationService {
 
-    private final RouteRepository routeRepository;
+    // below this many departures the fork/join overhead outweighs the per-route work
+    private static final int PARALLEL_SEARCH_THRESHOLD = 8;
+
+    private final RouteCatalog routeCatalog;
     private final SeatRepository seatRepository;
     private final ReservationRepository reservationRepository;
-
-    public ReservationService(RouteRepository routeRepository, SeatRepository seatRepository, ReservationRepository reservationRepository) {
-        this.routeRepository = routeRepository;
+    private final ReservationOutbox reservationOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SegmentCapacity segmentCapacity;
+    private final BusLayouts busLayouts;
+
+    public ReservationService(RouteCatalog routeCatalog, SeatRepository seatRepository,
+                              ReservationRepository reservationRepository, ReservationOutbox reservationOutbox,
+                              ApplicationEventPublisher eventPublisher, SegmentCapacity segmentCapacity,
+                              BusLayouts busLayouts) {
+        this.routeCatalog = routeCatalog;
         this.seatRepository = seatRepository;
         this.reservationRepository = reservationRepository;
+        this.reservationOutbox = reservationOutbox;
+        this.eventPublisher = eventPublisher;
+        this.segmentCapacity = segmentCapacity;
+        this.busLayouts = busLayouts;
     }
 
+    @Transactional(readOnly = true)
     public AvailabilityReport checkAvailability(TicketInquiry request) {
 
         log.info("Checking availability for route {} -> {} with {} passengers",
                 request.getOrigin(), request.getDestination(), request.getPassengerCount());
 
+        // sold out: answered from the counters and the route catalog, without any database work
+        if (isSoldOut(request)) {
+            BigDecimal pricePerSeat = findRoute(request).getPrice();
+            log.info("Availability check complete: {} -> {} is sold out", request.getOrigin(), request.getDestination());
+            return new AvailabilityReport(0, pricePerSeat,
+                    pricePerSeat.multiply(BigDecimal.valueOf(request.getPassengerCount())), List.of());
+        }
+
         AvailabilityDetails details = getAvailabilityDetails(request);
 
         // calculate pricing
@@ -58,22 +95,91 @@ public class ReservationService {
         return new AvailabilityReport(details.availableSeats().size(), pricePerSeat, totalPrice, availableSeatNumbers);
     }
 
+    // same result as checkAvailability, but seat availability is returned as a packed bitset for binary clients
+    @Transactional(readOnly = true)
+    public CompactAvailabilityReport checkAvailabilityCompact(TicketInquiry request) {
+
+        log.info("Checking compact availability for route {} -> {} with {} passengers",
+                request.getOrigin(), request.getDestination(), request.getPassengerCount());
+
+        if (isSoldOut(request)) {
+            BigDecimal pricePerSeat = findRoute(request).getPrice();
+            BusLayout layout = busLayouts.active();
+            return new CompactAvailabilityReport(0, pricePerSeat,
+                    pricePerSeat.multiply(BigDecimal.valueOf(request.getPassengerCount())),
+                    layout.size(), layout.name(), new byte[0]);
+        }
+
+        AvailabilityDetails details = getAvailabilityDetails(request);
+
+        BigDecimal pricePerSeat = details.route().getPrice();
+        BigDecimal totalPrice = pricePerSeat.multiply(BigDecimal.valueOf(request.getPassengerCount()));
+
+        return new CompactAvailabilityReport(details.availableSeats().size(), pricePerSeat, totalPrice,
+                details.totalSeats(), busLayouts.active().name(), details.availableSeatMap().toByteArray());
+    }
+
+    // availability and price to every destination reachable from the origin, computed from one occupancy snapshot
+    @Transactional(readOnly = true)
+    public AvailabilitySearchReport searchAvailability(AvailabilitySearchRequest request) {
+
+        log.info("Searching availability from {} for {} passengers", request.getOrigin(), request.getPassengerCount());
+
+        String operatorId = request.operatorOrDefault();
+        List<Route> routes = routeCatalog.departures(operatorId, request.getOrigin());
+        BigDecimal passengerCount = BigDecimal.valueOf(request.getPassengerCount());
+
+        // sold-out destinations are answered from the segment counters; the occupied seats are only read when
+        // at least one destination may still have a free seat
+        boolean anyOpen = routes.stream().anyMatch(route ->
+                !segmentCapacity.isSoldOut(operatorId, SegmentMask.of(route.getFromLocation(), route.getToLocation())));
+        BusLayout layout = busLayouts.active();
+        SeatInventory snapshot = anyOpen
+                ? SeatInventory.fromOccupancy(layout,
+                        seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(operatorId, layout.seatNumbers()))
+                : null;
+
+        Stream<Route> departures = routes.size() >= PARALLEL_SEARCH_THRESHOLD ? routes.parallelStream() : routes.stream();
+        List<DestinationAvailability> destinations = departures
+                .map(route -> {
+                    int segmentMask = SegmentMask.of(route.getFromLocation(), route.getToLocation());
+                    List<String> availableSeatNumbers = segmentCapacity.isSoldOut(operatorId, segmentMask) || snapshot == null
+                            ? List.of()
+                            : snapshot.availableSeatNumbers(segmentMask);
+                    return new DestinationAvailability(route.getToLocation(), availableSeatNumbers.size(),
+                            route.getPrice(), route.getPrice().multiply(passengerCount), availableSeatNumbers);
+                })
+                .sorted(Comparator.comparing(DestinationAvailability::getDestination))
+                .collect(Collectors.toList());
+
+        log.info("Availability search complete: {} destinations from {}, {} of them fit {} passengers",
+                destinations.size(), request.getOrigin(),
+                destinations.stream().filter(destination -> destination.getAvailableSeats() >= request.getPassengerCount()).count(),
+                request.getPassengerCount());
+
+        return new AvailabilitySearchReport(request.getOrigin(), request.getPassengerCount(), destinations);
+    }
+
     @Transactional
     public ReservationDetails reserveTickets(ReservationInquiry request) {
 
         log.info("Start reservation for {} passengers from {} to {}",
                 request.getPassengerCount(), request.getOrigin(), request.getDestination());
 
+        // impossible requests are turned away by the segment counters, before any database work
+        validateLocations(request);
+        String operatorId = request.operatorOrDefault();
+        int segmentMask = SegmentMask.of(request.getOrigin(), request.getDestination());
+        if (!segmentCapacity.canFit(operatorId, segmentMask, request.getPassengerCount())) {
+            throw notEnoughSeats(request.getPassengerCount(), segmentCapacity.available(operatorId, segmentMask));
+        }
+
         AvailabilityDetails details = getAvailabilityDetails(request);
 
         List<Seat> availableSeats = details.availableSeats();
         // Check if enough seats are available
         if (availableSeats.size() < request.getPassengerCount()) {
-            log.error("Insufficient seats available. Requested: {}, Available: {}",
-                    request.getPassengerCount(), availableSeats.size());
-            throw new NoSeatsAvailableException("Not enough seats available. Requested: " + request.getPassengerCount() +
-                            ", Available: " + availableSeats.size()
-            );
+            throw notEnoughSeats(request.getPassengerCount(), availableSeats.size());
         }
 
         // Create one reservation with multiple seats
@@ -84,6 +190,7 @@ public class ReservationService {
         reservation.setReservationNumber(reservationNumber);
         reservation.setFromLocation(request.getOrigin());
         reservation.setToLocation(request.getDestination());
+        reservation.setOperatorId(details.route().getOperatorId());
 
         // calculates the finalized total ticket price for the entire trip
         BigDecimal expectedPrice = details.route().getPrice().multiply(BigDecimal.valueOf(request.getPassengerCount()));
@@ -91,6 +198,7 @@ public class ReservationService {
         reservation.setPassengerCount(request.getPassengerCount());
 
         // take the first N number of requested seats
+        ReservationPhaseEvent phase = ReservationPhaseEvent.start(ReservationPhaseEvent.SEAT_ASSIGNMENT, request);
         List<Seat> assignedSeats = availableSeats.subList(0, request.getPassengerCount());
 
         // link seats to reservation
@@ -98,61 +206,109 @@ public class ReservationService {
             seat.setReservation(reservation);
             reservation.getSeats().add(seat);
         }
+        phase.finish(assignedSeats.size());
 
         // Save reservation
+        phase = ReservationPhaseEvent.start(ReservationPhaseEvent.SAVE, request);
         Reservation savedReservation = reservationRepository.save(reservation);
+        phase.finish(1 + assignedSeats.size());
 
         // Get seat numbers for response
         List<String> seatNumbers = assignedSeats.stream().map(seat -> seat.getSeatNumber()).collect(Collectors.toList());
 
-        log.info("Reservation successful!. Reservation number: {}, Seats: {}, Total price: Rs. {}",
-                reservationNumber, seatNumbers, expectedPrice);
-
-        return new ReservationDetails(
+        ReservationDetails reservationDetails = new ReservationDetails(
                 savedReservation.getReservationNumber(),
                 seatNumbers,
                 request.getOrigin(),
                 request.getDestination(),
                 expectedPrice
         );
+
+        // notify downstream systems through the outbox, in the same transaction as the booking
+        reservationOutbox.reservationCreated(reservationDetails);
+        eventPublisher.publishEvent(new SeatsReservedEvent(reservationNumber, reservation.getOperatorId(),
+                request.getOrigin(), request.getDestination(), seatNumbers));
+
+        log.info("Reservation successful!. Reservation number: {}, Seats: {}, Total price: Rs. {}",
+                reservationNumber, seatNumbers, expectedPrice);
+
+        return reservationDetails;
+    }
+
+    // books inside a transaction that is always rolled back, so nothing is kept and no event is published
+    @Transactional
+    public void rehearseReservation(ReservationInquiry request) {
+        try {
+            reserveTickets(request);
+        } finally {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
+    @Transactional
+    public ReservationDetails cancelReservation(String reservationNumber) {
+
+        log.info("Cancelling reservation {}", reservationNumber);
+
+        Reservation reservation = reservationRepository.findByReservationNumber(reservationNumber)
+                .orElseThrow(() -> {
+                    log.warn("Reservation not found: {}", reservationNumber);
+                    return new ReservationNotFoundException("Reservation not found: " + reservationNumber);
+                });
+
+        // unlink the seats before deleting, the seats collection cascades
+        List<String> seatNumbers = new ArrayList<>();
+        for (Seat seat : reservation.getSeats()) {
+            seat.setReservation(null);
+            seatNumbers.add(seat.getSeatNumber());
+        }
+        reservation.getSeats().clear();
+        reservationRepository.delete(reservation);
+
+        ReservationDetails reservationDetails = new ReservationDetails(reservationNumber, seatNumbers,
+                reservation.getFromLocation(), reservation.getToLocation(), reservation.getTotalPrice());
+        reservationOutbox.reservationCancelled(reservationDetails);
+        eventPublisher.publishEvent(new SeatsReleasedEvent(reservationNumber, reservation.getOperatorId(),
+                reservation.getFromLocation(), reservation.getToLocation(), seatNumbers));
+
+        log.info("Reservation {} cancelled, released seats {}", reservationNumber, seatNumbers);
+
+        return reservationDetails;
     }
 
     // core validation and calculates the available seats for a given request
     private AvailabilityDetails getAvailabilityDetails(TicketInquiry request) {
 
-        // validate origin and destination
-        if (request.getOrigin().equals(request.getDestination())) {
-            log.warn("Invalid request: origin and destination are the same - {}", request.getOrigin());
-            throw new InvalidReservationException("Origin and destination cannot be the same");
-        }
+        validateLocations(request);
 
         // Find the specific route info
-        Route route = routeRepository.findByFromLocationAndToLocation( request.getOrigin(), request.getDestination())
-                .orElseThrow(() -> {
-                    log.error("Route not found: {} -> {}", request.getOrigin(), request.getDestination());
-                    return new RouteNotFoundException("No route found from " + request.getOrigin() + " to " + request.getDestination());
-                });
+        Route route = findRoute(request);
 
         if (request instanceof ReservationInquiry reservationInquiry) {
-
-            // Validate price confirmation
-            BigDecimal expectedPrice = route.getPrice().multiply(BigDecimal.valueOf(request.getPassengerCount()));
-            if (reservationInquiry.getPriceConfirmation().compareTo(expectedPrice) != 0) {
-                log.warn("Price confirmation mismatch. Expected: Rs. {}, Received: Rs. {}",
-                        expectedPrice, reservationInquiry.getPriceConfirmation());
-                throw new InvalidReservationException("Price confirmation mismatch. Expected: Rs. " + expectedPrice +
-                        ", Received: Rs. " + reservationInquiry.getPriceConfirmation()
-                );
-            }
+            validatePriceConfirmation(route, reservationInquiry);
         }
 
-        // Get all seats and reservations to check for overlaps
-        List<Seat> allSeats = seatRepository.findAll();
-        List<Reservation> allReservations = reservationRepository.findAll();
+        // seats of the operator's bus in the active layout, in layout order
+        ReservationPhaseEvent phase = ReservationPhaseEvent.start(ReservationPhaseEvent.SEAT_LOAD, request);
+        BusLayout layout = busLayouts.active();
+        List<Seat> allSeats = seatRepository.findByOperatorIdAndSeatNumberIn(route.getOperatorId(), layout.seatNumbers())
+                .stream()
+                .sorted(Comparator.comparingInt(seat -> layout.indexOf(seat.getSeatNumber())))
+                .toList();
+        phase.finish(allSeats.size());
+
+        // only the operator's reservations on journeys that can compete with this one
+        phase = ReservationPhaseEvent.start(ReservationPhaseEvent.RESERVATION_LOAD, request);
+        List<Reservation> allReservations = reservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn(
+                route.getOperatorId(),
+                SegmentMask.competingOrigins(request.getOrigin(), request.getDestination()),
+                SegmentMask.competingDestinations(request.getOrigin(), request.getDestination()));
+        phase.finish(allReservations.size());
 
         // Find seats that overlap with the requested route
+        phase = ReservationPhaseEvent.start(ReservationPhaseEvent.OVERLAP_COMPUTATION, request);
         List<Long> conflictingSeatIds = allReservations.stream()
-                .filter(reservation -> routesOverlap(
+                .filter(reservation -> SegmentMask.overlaps(
                         request.getOrigin(), request.getDestination(),
                         reservation.getFromLocation(), reservation.getToLocation()
                 ))
@@ -163,13 +319,35 @@ public class ReservationService {
 
         log.debug("Found {} seats with conflicting reservations", conflictingSeatIds.size());
 
-        List<Seat> availableSeats = allSeats.stream()
-                .filter(seat -> !conflictingSeatIds.contains(seat.getId()))
-                .collect(Collectors.toList());
+        // bits follow the layout index, so a seat missing from the table leaves its bit clear instead of shifting the rest
+        List<Seat> availableSeats = new ArrayList<>();
+        BitSet availableSeatMap = new BitSet(layout.size());
+        for (Seat seat : allSeats) {
+            if (!conflictingSeatIds.contains(seat.getId())) {
+                availableSeats.add(seat);
+                availableSeatMap.set(layout.indexOf(seat.getSeatNumber()));
+            }
+        }
+
+        phase.finish(allReservations.size());
 
         log.debug("Number of  {} available seats", availableSeats.size());
 
-        return new AvailabilityDetails(route, availableSeats);
+        return new AvailabilityDetails(route, availableSeats, layout.size(), availableSeatMap);
+    }
+
+    private boolean isSoldOut(TicketInquiry request) {
+        validateLocations(request);
+        return segmentCapacity.isSoldOut(request.operatorOrDefault(),
+                SegmentMask.of(request.getOrigin(), request.getDestination()));
+    }
+
+    private Route findRoute(TicketInquiry request) {
+        ReservationPhaseEvent phase = ReservationPhaseEvent.start(ReservationPhaseEvent.ROUTE_LOOKUP, request);
+        Route route = routeCatalog.route(request.operatorOrDefault(), request.getOrigin(), request.getDestination())
+                .orElseThrow(() -> routeNotFound(request));
+        phase.finish(1);
+        return route;
     }
 
     private String generateReservationNumber() {
@@ -177,34 +355,38 @@ public class ReservationService {
         return "RES-" + timestamp + "-" + (int) (Math.random() * 1000);
     }
 
-    // Checks if two routes overlap. Overlap only occurs if they travel in the same direction and their segment intersect.
-    private boolean routesOverlap(Location req1From, Location req1To, Location req2From, Location req2To) {
-
-        // use the difference in positions to determine direction - positive for forward, negative for backward
-        int req1Direction = getLocationPosition(req1To) - getLocationPosition(req1From);
-        int req2Direction = getLocationPosition(req2To) - getLocationPosition(req2From);
-
-        // routes only overlap if they are traveling in the same direction
-        if (Math.signum(req1Direction) != Math.signum(req2Direction)) {
-            return false;
+    // validate origin and destination
+    static void validateLocations(TicketInquiry request) {
+        if (request.getOrigin().equals(request.getDestination())) {
+            log.warn("Invalid request: origin and destination are the same - {}", request.getOrigin());
+            throw new InvalidReservationException("Origin and destination cannot be the same");
         }
+    }
 
-        // Need the start and end positions, regardless of the travel direction.
-        int req1Start = Math.min(getLocationPosition(req1From), getLocationPosition(req1To));
-        int req1End = Math.max(getLocationPosition(req1From), getLocationPosition(req1To));
-
-        int req2Start = Math.min(getLocationPosition(req2From), getLocationPosition(req2To));
-        int req2End = Math.max(getLocationPosition(req2From), getLocationPosition(req2To));
+    static void validatePriceConfirmation(Route route, ReservationInquiry request) {
+        BigDecimal expectedPrice = route.getPrice().multiply(BigDecimal.valueOf(request.getPassengerCount()));
+        if (request.getPriceConfirmation().compareTo(expectedPrice) != 0) {
+            log.warn("Price confirmation mismatch. Expected: Rs. {}, Received: Rs. {}",
+                    expectedPrice, request.getPriceConfirmation());
+            throw new InvalidReservationException("Price confirmation mismatch. Expected: Rs. " + expectedPrice +
+                    ", Received: Rs. " + request.getPriceConfirmation()
+            );
+        }
+    }
 
-        return (req1Start < req2End) && (req2Start < req1End);
+    static RouteNotFoundException routeNotFound(TicketInquiry request) {
+        log.error("Route not found: {} -> {} of operator {}", request.getOrigin(), request.getDestination(),
+                request.operatorOrDefault());
+        String message = "No route found from " + request.getOrigin() + " to " + request.getDestination();
+        return new RouteNotFoundException(request.getOperatorId() == null
+                ? message
+                : message + " for operator " + request.getOperatorId());
     }
 
-    private int getLocationPosition(Location location) {
-        return switch (location) {
-            case A -> 0;
-            case B -> 1;
-            case C -> 2;
-            case D -> 3;
-        };
+    static NoSeatsAvailableException notEnoughSeats(int requested, int available) {
+        log.error("Insufficient seats available. Requested: {}, Available: {}", requested, available);
+        return new NoSeatsAvailableException("Not enough seats available. Requested: " + requested +
+                ", Available: " + available
+        );
     }
 }
@@ -0,0 +1,84 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.inventory.TransferIndex;
+import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// The route table, read once while the context starts, before any request is served, so route and price lookups on
+// the request path never touch the database. Routes are reference data that only Flyway migrations change, and
+// migrations run before the context starts, so the catalog never goes stale while the application runs.
+// Holds one transfer index per operator: journeys never change operator.
+@Slf4j
+@Component
+public class RouteCatalog implements InitializingBean {
+
+    private static final TransferIndex EMPTY_INDEX = TransferIndex.build(List.of());
+
+    private final RouteRepository routeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // operator -> origin -> destination
+    private Map<String, Map<Location, Map<Location, Route>>> routes = Map.of();
+    private Map<String, TransferIndex> transferIndexes = Map.of();
+    private List<String> operators = List.of();
+
+    public RouteCatalog(RouteRepository routeRepository, PlatformTransactionManager transactionManager) {
+        this.routeRepository = routeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // read-write on purpose: read-only transactions may be served by a lagging replica
+        List<Route> allRoutes = transactionTemplate.execute(status -> routeRepository.findAll());
+        Map<String, Map<Location, Map<Location, Route>>> byOperator = new HashMap<>();
+        for (Route route : allRoutes) {
+            byOperator.computeIfAbsent(route.getOperatorId(), operator -> new EnumMap<>(Location.class))
+                    .computeIfAbsent(route.getFromLocation(), from -> new EnumMap<>(Location.class))
+                    .put(route.getToLocation(), route);
+        }
+        Map<String, TransferIndex> indexes = new HashMap<>();
+        allRoutes.stream()
+                .collect(Collectors.groupingBy(Route::getOperatorId))
+                .forEach((operator, operatorRoutes) -> indexes.put(operator, TransferIndex.build(operatorRoutes)));
+        routes = Map.copyOf(byOperator);
+        transferIndexes = Map.copyOf(indexes);
+        operators = indexes.keySet().stream().sorted().toList();
+        log.info("Route catalog loaded: {} routes of {} operators", allRoutes.size(), indexes.size());
+    }
+
+    public Optional<Route> route(String operatorId, Location origin, Location destination) {
+        return Optional.ofNullable(departureMap(operatorId, origin).get(destination));
+    }
+
+    // the operator's routes from origin, in destination order
+    public List<Route> departures(String operatorId, Location origin) {
+        return List.copyOf(departureMap(operatorId, origin).values());
+    }
+
+    // operators with at least one route, in id order; each has its own bus and seat inventory
+    public List<String> operators() {
+        return operators;
+    }
+
+    public TransferIndex transferIndex(String operatorId) {
+        return transferIndexes.getOrDefault(operatorId, EMPTY_INDEX);
+    }
+
+    private Map<Location, Route> departureMap(String operatorId, Location origin) {
+        return routes.getOrDefault(operatorId, Map.of()).getOrDefault(origin, Map.of());
+    }
+}
@@ -0,0 +1,80 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Makes sure every operator with routes has a row in the seats table for every seat of the active bus layout,
+// which bookings link to. Runs while the context starts, before any request is served, and again on every
+// inventory reload of the sequencer. Rows of seats outside the layout are left alone (they may still hold
+// reservations) but are never offered by the in-memory inventories.
+@Slf4j
+@Component
+public class SeatCatalog implements InitializingBean {
+
+    private final BusLayouts busLayouts;
+    private final RouteCatalog routeCatalog;
+    private final SeatRepository seatRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SeatCatalog(BusLayouts busLayouts, RouteCatalog routeCatalog, SeatRepository seatRepository,
+                       PlatformTransactionManager transactionManager) {
+        this.busLayouts = busLayouts;
+        this.routeCatalog = routeCatalog;
+        this.seatRepository = seatRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        ensureSeats(routeCatalog.operators());
+    }
+
+    // Adds the missing layout seats of the given operators; also called by ReservationSequencer when it reloads,
+    // so an operator whose routes were added after startup gets a bus too.
+    public void ensureSeats(Collection<String> operators) {
+        BusLayout layout = busLayouts.active();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, Set<String>> existing = seatRepository.findAll().stream()
+                    .collect(Collectors.groupingBy(Seat::getOperatorId,
+                            Collectors.mapping(Seat::getSeatNumber, Collectors.toSet())));
+
+            List<Seat> missing = new ArrayList<>();
+            for (String operator : operators) {
+                Set<String> operatorSeats = existing.getOrDefault(operator, Set.of());
+                for (int i = 0; i < layout.size(); i++) {
+                    if (!operatorSeats.contains(layout.seatNumber(i))) {
+                        missing.add(new Seat(null, layout.seatNumber(i), operator));
+                    }
+                }
+            }
+            seatRepository.saveAll(missing);
+
+            long outside = existing.values().stream()
+                    .flatMap(Set::stream)
+                    .filter(seatNumber -> layout.indexOf(seatNumber) < 0)
+                    .count();
+            if (outside > 0) {
+                log.warn("{} seats in the database are not part of bus layout {} and will not be offered",
+                        outside, layout.name());
+            }
+            if (!missing.isEmpty()) {
+                log.info("Bus layout {}: {} seats added to the seat catalog for {} operators",
+                        layout.name(), missing.size(), operators.size());
+            }
+        });
+    }
+}
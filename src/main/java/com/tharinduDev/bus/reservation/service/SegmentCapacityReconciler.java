@@ -0,0 +1,88 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.inventory.AvailabilityVersions;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.SeatInventory;
+import com.tharinduDev.bus.reservation.inventory.SeatsReleasedEvent;
+import com.tharinduDev.bus.reservation.inventory.SeatsReservedEvent;
+import com.tharinduDev.bus.reservation.inventory.SegmentCapacity;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Feeds bookings and releases into the segment capacity counters and periodically checks each operator's
+// counters against its seats in the database. The first reconcile runs as soon as the scheduler starts,
+// after the seat data is loaded.
+@Slf4j
+@Component
+public class SegmentCapacityReconciler {
+
+    private final SegmentCapacity segmentCapacity;
+    private final AvailabilityVersions availabilityVersions;
+    private final BusLayouts busLayouts;
+    private final RouteCatalog routeCatalog;
+    private final SeatRepository seatRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // operators whose counters have been loaded, only used by the scheduler thread
+    private final Set<String> reconciled = new HashSet<>();
+
+    public SegmentCapacityReconciler(SegmentCapacity segmentCapacity, AvailabilityVersions availabilityVersions,
+                                     BusLayouts busLayouts, RouteCatalog routeCatalog,
+                                     SeatRepository seatRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.segmentCapacity = segmentCapacity;
+        this.availabilityVersions = availabilityVersions;
+        this.busLayouts = busLayouts;
+        this.routeCatalog = routeCatalog;
+        this.seatRepository = seatRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // plain listeners, not transactional ones: the counters register their own after-commit hook so a
+    // reconcile can tell that a change is in flight
+    @EventListener
+    public void onSeatsReserved(SeatsReservedEvent event) {
+        segmentCapacity.reserved(event.operatorId(), event.segmentMask(), event.seatNumbers().size());
+    }
+
+    @EventListener
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        segmentCapacity.released(event.operatorId(), event.segmentMask(), event.seatNumbers().size());
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.capacity.reconcile-interval:30s}")
+    public void reconcile() {
+        for (String operator : routeCatalog.operators()) {
+            reconcile(operator);
+        }
+    }
+
+    private void reconcile(String operator) {
+        // read-write on purpose: a read-only transaction may be served by a lagging replica; reads only the
+        // occupied seats of the layout, not whole reservations
+        BusLayout layout = busLayouts.active();
+        int drift = segmentCapacity.reconcile(operator, () -> transactionTemplate.execute(status ->
+                SeatInventory.fromOccupancy(layout,
+                        seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(operator, layout.seatNumbers()))));
+        if (drift < 0) {
+            log.debug("Segment capacity reconcile of operator {} skipped, bookings in flight", operator);
+        } else if (reconciled.add(operator)) {
+            log.info("Segment capacity counters of operator {} loaded for {} seats", operator,
+                    segmentCapacity.totalSeats(operator));
+        } else if (drift > 0) {
+            log.warn("Segment capacity counters of operator {} were off by {} seats, corrected from the database",
+                    operator, drift);
+            // seats changed without a booking or release event, so availability tags handed out may be stale
+            availabilityVersions.changed(operator, AvailabilityVersions.ALL_SEGMENTS);
+        }
+    }
+}
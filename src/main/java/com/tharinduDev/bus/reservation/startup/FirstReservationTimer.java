@@ -0,0 +1,44 @@
+package com.tharinduDev.bus.reservation.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Reports how long after JVM start the first reservation succeeded, as a log line and as the
+// reservation.startup.first-reservation gauge (NaN until it happened).
+@Slf4j
+public class FirstReservationTimer extends OncePerRequestFilter {
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+    private volatile double firstReservationMillis = Double.NaN;
+
+    public FirstReservationTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder("reservation.startup.first-reservation", this, TimeUnit.MILLISECONDS,
+                        timer -> timer.firstReservationMillis)
+                .description("Time from JVM start to the first successful reservation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+
+        if (!recorded.get() && response.getStatus() == HttpStatus.CREATED.value() && recorded.compareAndSet(false, true)) {
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            firstReservationMillis = uptime;
+            log.info("Time to first successful reservation: {} ms after JVM start", uptime);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.tharinduDev.bus.reservation.startup;
+
+import com.tharinduDev.bus.reservation.dto.AvailabilitySearchRequest;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import com.tharinduDev.bus.reservation.service.ReservationEngine;
+import com.tharinduDev.bus.reservation.service.ReservationSequencer;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Loads routes and occupancy and runs the availability and booking code paths until they are JIT compiled.
+// Runs as a lifecycle phase after the sequencer has started and before the web and gRPC servers open their ports,
+// so no request is served during the warm-up, nor with the quieter log level it sets. Bookings go through the
+// active engine (ReservationEngine.rehearse) and are never kept.
+@Component
+@ConditionalOnProperty(name = "reservation.warmup.enabled", havingValue = "true")
+@Slf4j
+public class InventoryWarmup implements SmartLifecycle {
+
+    private static final String APPLICATION_LOGGER = "com.tharinduDev.bus.reservation";
+
+    private final ReservationService reservationService;
+    private final ReservationEngine reservationEngine;
+    private final RouteRepository routeRepository;
+    private final LoggingSystem loggingSystem;
+    private final int iterations;
+    private volatile boolean running;
+
+    public InventoryWarmup(ReservationService reservationService, ReservationEngine reservationEngine,
+                           RouteRepository routeRepository, LoggingSystem loggingSystem,
+                           @Value("${reservation.warmup.iterations:10}") int iterations) {
+        this.reservationService = reservationService;
+        this.reservationEngine = reservationEngine;
+        this.routeRepository = routeRepository;
+        this.loggingSystem = loggingSystem;
+        this.iterations = iterations;
+    }
+
+    @Override
+    public void start() {
+        warmUp();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return ReservationSequencer.PHASE + 1024;
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        List<Route> routes = routeRepository.findAll();
+
+        // per-request info logs would flood the log during warm-up
+        LoggerConfiguration loggerConfiguration = loggingSystem.getLoggerConfiguration(APPLICATION_LOGGER);
+        LogLevel configuredLevel = loggerConfiguration != null ? loggerConfiguration.getConfiguredLevel() : null;
+        loggingSystem.setLogLevel(APPLICATION_LOGGER, LogLevel.WARN);
+        try {
+            for (int i = 0; i < iterations; i++) {
+                for (Route route : routes) {
+                    TicketInquiry inquiry = new TicketInquiry(1, route.getFromLocation(), route.getToLocation());
+                    reservationService.checkAvailability(inquiry);
+                    reservationService.checkAvailabilityCompact(inquiry);
+                }
+                for (Location origin : Location.values()) {
+                    reservationService.searchAvailability(new AvailabilitySearchRequest(1, origin));
+                }
+                for (Route route : routes) {
+                    exerciseBooking(route);
+                }
+            }
+        } finally {
+            loggingSystem.setLogLevel(APPLICATION_LOGGER, configuredLevel);
+        }
+
+        log.info("Warm-up finished in {} ms ({} iterations over {} routes), JVM uptime {} ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), iterations, routes.size(),
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    private void exerciseBooking(Route route) {
+        try {
+            reservationEngine.rehearse(new ReservationInquiry(1, route.getFromLocation(),
+                    route.getToLocation(), route.getPrice()));
+        } catch (RuntimeException ex) {
+            // sold out routes still exercise validation and seat lookup
+            log.debug("Warm-up booking {} -> {} failed: {}", route.getFromLocation(), route.getToLocation(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.tharinduDev.bus.reservation.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public FilterRegistrationBean<FirstReservationTimer> firstReservationTimer(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<FirstReservationTimer> registration =
+                new FilterRegistrationBean<>(new FirstReservationTimer(meterRegistry));
+        registration.addUrlPatterns("/api/v1/reservations/reserve");
+        return registration;
+    }
+}
@@ -0,0 +1,71 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounded slice of request threads and database connections for one tenant: at most maxConcurrent
+// requests run, at most maxQueued wait up to maxWait for a slot, anything beyond is turned away at once.
+// A saturated tenant therefore holds a fixed number of server threads and cannot starve the others.
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, long maxWaitNanos) {
+        if (maxConcurrent < 1 || maxQueued < 0 || maxWaitNanos < 0) {
+            throw new IllegalArgumentException("Invalid bulkhead limits for " + name);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWaitNanos;
+        // fair, so queued requests are admitted in arrival order
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    // true when the caller holds a slot and must call exit()
+    public boolean tryEnter() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    // share of the concurrency slice in use, 1.0 when every slot is taken
+    public double getSaturation() {
+        return (double) getInFlight() / maxConcurrent;
+    }
+}
@@ -0,0 +1,109 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+
+// Works out whose inventory a request touches from what it books or reads, never from a header the client
+// may set to any operator:
+// - journey requests run for the operator of their route, named by operatorId (query parameter or body
+//   field) or the default operator when they name none;
+// - DELETE /api/v1/reservations/{number} runs for the operator of that reservation, looked up by the caller
+//   while it holds a slot in the shared bulkhead (see looksUpOperator).
+// Anything else, and bodies that cannot be read, get no operator and end up in the shared bulkhead.
+@Slf4j
+public class OperatorResolver {
+
+    static final String OPERATOR_FIELD = "operatorId";
+    // request bodies are a handful of fields; larger ones are passed on unread
+    static final int MAX_BODY_BYTES = 4096;
+    private static final String RESERVATIONS_PATH = "/api/v1/reservations/";
+
+    private final ReservationRepository reservationRepository;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    public OperatorResolver(ReservationRepository reservationRepository, ObjectMapper jsonMapper) {
+        this.reservationRepository = reservationRepository;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // true when operatorOf has to query the database for this request, which the caller must then bound
+    boolean looksUpOperator(HttpServletRequest request) {
+        return HttpMethod.DELETE.matches(request.getMethod()) && path(request).startsWith(RESERVATIONS_PATH);
+    }
+
+    // the operator, or null for the shared bulkhead
+    String operatorOf(HttpServletRequest request) {
+        if (looksUpOperator(request)) {
+            String reservationNumber = path(request).substring(RESERVATIONS_PATH.length());
+            return reservationRepository.findOperatorIdByReservationNumber(reservationNumber).orElse(null);
+        }
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return request.getParameter("origin") != null ? operatorOrDefault(request.getParameter(OPERATOR_FIELD)) : null;
+        }
+        if (request instanceof ReplayableRequest replayable && replayable.body() != null) {
+            return operatorInBody(replayable.body(), request.getContentType());
+        }
+        return null;
+    }
+
+    // POST bodies are read ahead so the operator can be found in them, then replayed to the controller
+    HttpServletRequest readable(HttpServletRequest request) throws IOException {
+        if (!HttpMethod.POST.matches(request.getMethod()) || bodyMapper(request.getContentType()) == null) {
+            return request;
+        }
+        return ReplayableRequest.readAhead(request, MAX_BODY_BYTES);
+    }
+
+    private String operatorInBody(byte[] body, String contentType) {
+        try {
+            JsonNode tree = bodyMapper(contentType).readTree(body);
+            if (tree == null || !tree.isObject()) {
+                return null;
+            }
+            JsonNode operator = tree.get(OPERATOR_FIELD);
+            return operatorOrDefault(operator != null && operator.isTextual() ? operator.asText() : null);
+        } catch (IOException ex) {
+            // the controller reports the malformed body
+            log.debug("Could not read the operator from the request body: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private ObjectMapper bodyMapper(String contentType) {
+        MediaType mediaType;
+        try {
+            mediaType = contentType != null ? MediaType.parseMediaType(contentType) : null;
+        } catch (InvalidMediaTypeException ex) {
+            mediaType = null;
+        }
+        if (mediaType == null) {
+            return null;
+        }
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+            return jsonMapper;
+        }
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(mediaType)) {
+            return cborMapper;
+        }
+        return null;
+    }
+
+    private static String operatorOrDefault(String operatorId) {
+        return operatorId != null ? operatorId : Route.DEFAULT_OPERATOR;
+    }
+}
@@ -0,0 +1,98 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Objects;
+
+// Request whose first bytes of body were read ahead (to find the operator) and are handed out again, followed
+// by whatever the read-ahead left in the original stream.
+class ReplayableRequest extends HttpServletRequestWrapper {
+
+    private final byte[] head;
+    private final boolean complete;
+    private ServletInputStream inputStream;
+
+    private ReplayableRequest(HttpServletRequest request, byte[] head, boolean complete) {
+        super(request);
+        this.head = head;
+        this.complete = complete;
+    }
+
+    // reads up to limit bytes of the body
+    static ReplayableRequest readAhead(HttpServletRequest request, int limit) throws IOException {
+        byte[] head = request.getInputStream().readNBytes(limit + 1);
+        return new ReplayableRequest(request, head, head.length <= limit);
+    }
+
+    // the whole body when it fit in the read-ahead, null otherwise
+    byte[] body() {
+        return complete ? head : null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            InputStream replay = complete
+                    ? new ByteArrayInputStream(head)
+                    : new SequenceInputStream(new ByteArrayInputStream(head), super.getInputStream());
+            inputStream = new ReplayInputStream(replay);
+        }
+        return inputStream;
+    }
+
+    private static final class ReplayInputStream extends ServletInputStream {
+
+        private final InputStream replay;
+        private boolean finished;
+
+        private ReplayInputStream(InputStream replay) {
+            this.replay = replay;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int next = replay.read();
+            finished = next < 0;
+            return next;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = replay.read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        // the read-ahead bytes are in memory and the rest of the body is read blocking, so data is always
+        // available: the listener is called back at once, and told the body is done once it has drained it
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            Objects.requireNonNull(readListener, "readListener");
+            try {
+                readListener.onDataAvailable();
+                if (finished) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException ex) {
+                readListener.onError(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+@ConditionalOnProperty(name = "reservation.tenancy.enabled", havingValue = "true")
+public class TenancyConfig {
+
+    @Bean
+    public TenantBulkheads tenantBulkheads(TenancyProperties properties,
+                                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        TenantBulkheads bulkheads = new TenantBulkheads(properties);
+        // each running request holds at most one connection, so the slices only isolate tenants
+        // while they fit in the pool together
+        if (bulkheads.totalConcurrency() > connectionPoolSize) {
+            log.warn("Tenant bulkheads allow {} concurrent requests but the connection pool has {} connections; "
+                    + "saturated tenants can still wait on each other for connections",
+                    bulkheads.totalConcurrency(), connectionPoolSize);
+        }
+        return bulkheads;
+    }
+
+    // after admission control, so rate-limited and globally shed requests never occupy a tenant slot
+    @Bean
+    public FilterRegistrationBean<TenantBulkheadFilter> tenantBulkheadFilter(TenantBulkheads bulkheads,
+                                                                            ReservationRepository reservationRepository,
+                                                                            ObjectMapper objectMapper,
+                                                                            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<TenantBulkheadFilter> registration = new FilterRegistrationBean<>(new TenantBulkheadFilter(
+                bulkheads, new OperatorResolver(reservationRepository, objectMapper), meterRegistry));
+        registration.addUrlPatterns("/api/v1/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+}
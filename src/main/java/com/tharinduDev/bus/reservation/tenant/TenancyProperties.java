@@ -0,0 +1,23 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Off unless enabled. operators maps an operator id to its own bulkhead, at most maxOperators of them;
+// operators not listed share the "shared" bulkhead. Limits default to the whole connection pool (10) and a
+// queue that rides out short bursts, so enabling tenancy without sizing the slices does not throttle traffic.
+@ConfigurationProperties(prefix = "reservation.tenancy")
+public record TenancyProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("32") int maxOperators,
+        @DefaultValue Limits shared,
+        @DefaultValue Map<String, Limits> operators) {
+
+    public record Limits(
+            @DefaultValue("10") int maxConcurrent,
+            @DefaultValue("100") int maxQueued,
+            @DefaultValue("2s") Duration maxWait) { }
+}
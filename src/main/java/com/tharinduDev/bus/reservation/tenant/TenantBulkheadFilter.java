@@ -0,0 +1,121 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Runs each request inside the bulkhead of the operator whose inventory it touches, as worked out by
+// OperatorResolver, so a sale spike on one operator fills only that operator's slice and queue.
+// Resolving a cancellation's operator reads the database, so that lookup runs in the shared bulkhead first.
+// Requests that find the slice and its queue full are rejected with 429 + Retry-After.
+@Slf4j
+public class TenantBulkheadFilter extends OncePerRequestFilter {
+
+    private static final byte[] SATURATED_BODY =
+            "{\"status\":429,\"message\":\"Operator is at capacity, please retry later\"}".getBytes(StandardCharsets.UTF_8);
+
+    static final String REQUESTS_METER = "reservation.tenant.requests";
+    static final String REJECTED_METER = "reservation.tenant.rejected";
+
+    private final TenantBulkheads bulkheads;
+    private final OperatorResolver operatorResolver;
+    private final Map<Bulkhead, Timer> latency = new HashMap<>();
+    private final Map<Bulkhead, Counter> rejected = new HashMap<>();
+
+    public TenantBulkheadFilter(TenantBulkheads bulkheads, OperatorResolver operatorResolver, MeterRegistry meterRegistry) {
+        this.bulkheads = bulkheads;
+        this.operatorResolver = operatorResolver;
+        for (Bulkhead bulkhead : bulkheads.all()) {
+            String operator = bulkhead.getName();
+            latency.put(bulkhead, Timer.builder(REQUESTS_METER)
+                    .tag("operator", operator)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            rejected.put(bulkhead, Counter.builder(REJECTED_METER)
+                    .tag("operator", operator)
+                    .register(meterRegistry));
+            Gauge.builder("reservation.tenant.bulkhead.in-flight", bulkhead, Bulkhead::getInFlight)
+                    .tag("operator", operator)
+                    .register(meterRegistry);
+            Gauge.builder("reservation.tenant.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+                    .tag("operator", operator)
+                    .register(meterRegistry);
+            Gauge.builder("reservation.tenant.bulkhead.saturation", bulkhead, Bulkhead::getSaturation)
+                    .tag("operator", operator)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        HttpServletRequest readableRequest = operatorResolver.readable(request);
+        long start = System.nanoTime();
+        String operator;
+        if (operatorResolver.looksUpOperator(readableRequest)) {
+            // the lookup is a database query, so it takes a shared slot like any request without an operator
+            Bulkhead shared = bulkheads.forOperator(null);
+            if (!enter(shared)) {
+                reject(shared, response);
+                return;
+            }
+            try {
+                operator = operatorResolver.operatorOf(readableRequest);
+            } finally {
+                shared.exit();
+            }
+        } else {
+            operator = operatorResolver.operatorOf(readableRequest);
+        }
+
+        Bulkhead bulkhead = bulkheads.forOperator(operator);
+        if (!enter(bulkhead)) {
+            reject(bulkhead, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(readableRequest, response);
+        } finally {
+            bulkhead.exit();
+            latency.get(bulkhead).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static boolean enter(Bulkhead bulkhead) {
+        try {
+            return bulkhead.tryEnter();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(Bulkhead bulkhead, HttpServletResponse response) throws IOException {
+        rejected.get(bulkhead).increment();
+        log.debug("Bulkhead {} saturated: {} in flight, {} queued",
+                bulkhead.getName(), bulkhead.getInFlight(), bulkhead.getQueued());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(SATURATED_BODY.length);
+        response.getOutputStream().write(SATURATED_BODY);
+    }
+}
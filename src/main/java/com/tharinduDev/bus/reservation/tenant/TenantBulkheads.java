@@ -0,0 +1,47 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One bulkhead per configured operator plus the shared one; fixed at startup and capped at max-operators,
+// so neither requests nor configuration can grow the set (or the meters tagged with it) without bound.
+// Requests for an operator without a bulkhead, or for no operator, run in the shared one.
+public class TenantBulkheads {
+
+    public static final String SHARED = "shared";
+
+    private final Map<String, Bulkhead> byOperator;
+    private final Bulkhead shared;
+
+    public TenantBulkheads(TenancyProperties properties) {
+        if (properties.operators().size() > properties.maxOperators()) {
+            throw new IllegalStateException("reservation.tenancy.operators lists " + properties.operators().size()
+                    + " operators, more than reservation.tenancy.max-operators (" + properties.maxOperators() + ")");
+        }
+        this.shared = bulkhead(SHARED, properties.shared());
+        Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+        properties.operators().forEach((operator, limits) -> bulkheads.put(operator, bulkhead(operator, limits)));
+        this.byOperator = Collections.unmodifiableMap(bulkheads);
+    }
+
+    public Bulkhead forOperator(String operatorId) {
+        return operatorId != null ? byOperator.getOrDefault(operatorId, shared) : shared;
+    }
+
+    public Collection<Bulkhead> all() {
+        LinkedHashMap<String, Bulkhead> all = new LinkedHashMap<>(byOperator);
+        all.put(SHARED, shared);
+        return all.values();
+    }
+
+    // database connections the bulkheads can hold at once, one per running request
+    public int totalConcurrency() {
+        return all().stream().mapToInt(Bulkhead::getMaxConcurrent).sum();
+    }
+
+    private static Bulkhead bulkhead(String name, TenancyProperties.Limits limits) {
+        return new Bulkhead(name, limits.maxConcurrent(), limits.maxQueued(), limits.maxWait().toNanos());
+    }
+}
@@ -0,0 +1,54 @@
+package com.tharinduDev.bus.reservation.waitlist;
+
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+// Waiting entries indexed by road segment: one queue per segment, earliest join first. An entry sits in the
+// queue of every segment it travels, so a release only has to look at the queues of the segments it frees.
+// Not thread-safe, owned by the waitlist matcher thread.
+class Waitlist {
+
+    private static final Comparator<WaitlistEntry> JOIN_ORDER = Comparator.comparingLong(entry -> entry.sequence);
+
+    private final List<PriorityQueue<WaitlistEntry>> bySegment = new ArrayList<>(SegmentMask.SEGMENT_COUNT);
+    private int size;
+
+    Waitlist() {
+        for (int segment = 0; segment < SegmentMask.SEGMENT_COUNT; segment++) {
+            bySegment.add(new PriorityQueue<>(JOIN_ORDER));
+        }
+    }
+
+    void add(WaitlistEntry entry) {
+        forEachSegment(entry.segmentMask, segment -> bySegment.get(segment).add(entry));
+        size++;
+    }
+
+    void remove(WaitlistEntry entry) {
+        forEachSegment(entry.segmentMask, segment -> bySegment.get(segment).remove(entry));
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // entries travelling at least one of the released segments, earliest join first
+    List<WaitlistEntry> candidates(int releasedSegments) {
+        TreeSet<WaitlistEntry> candidates = new TreeSet<>(JOIN_ORDER);
+        forEachSegment(releasedSegments, segment -> candidates.addAll(bySegment.get(segment)));
+        return new ArrayList<>(candidates);
+    }
+
+    private static void forEachSegment(int segmentMask, IntConsumer action) {
+        for (int remaining = segmentMask; remaining != 0; remaining &= remaining - 1) {
+            action.accept(Integer.numberOfTrailingZeros(remaining));
+        }
+    }
+}
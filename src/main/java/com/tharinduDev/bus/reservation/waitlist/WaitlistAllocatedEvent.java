@@ -0,0 +1,7 @@
+package com.tharinduDev.bus.reservation.waitlist;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+
+// Published when a waitlisted request gets its seats; notification channels listen for it
+public record WaitlistAllocatedEvent(String waitlistId, ReservationDetails reservation) {
+}
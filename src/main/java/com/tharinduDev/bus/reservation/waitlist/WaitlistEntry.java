@@ -0,0 +1,43 @@
+package com.tharinduDev.bus.reservation.waitlist;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.WaitlistDetails;
+import com.tharinduDev.bus.reservation.enums.WaitlistStatus;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+
+// One customer request on the waitlist. Mutated only by the matcher thread, read by request threads.
+class WaitlistEntry {
+
+    final String id;
+    // join order; lower sequences are served first
+    final long sequence;
+    final ReservationInquiry request;
+    final int segmentMask;
+
+    private volatile WaitlistStatus status = WaitlistStatus.WAITING;
+    private volatile ReservationDetails reservation;
+    private volatile String message;
+
+    WaitlistEntry(String id, long sequence, ReservationInquiry request) {
+        this.id = id;
+        this.sequence = sequence;
+        this.request = request;
+        this.segmentMask = SegmentMask.of(request.getOrigin(), request.getDestination());
+    }
+
+    void allocated(ReservationDetails reservation) {
+        this.reservation = reservation;
+        this.status = WaitlistStatus.ALLOCATED;
+    }
+
+    void failed(String message) {
+        this.message = message;
+        this.status = WaitlistStatus.FAILED;
+    }
+
+    WaitlistDetails toDetails() {
+        return new WaitlistDetails(id, status, request.getPassengerCount(), request.getOrigin(),
+                request.getDestination(), reservation, message);
+    }
+}
@@ -0,0 +1,187 @@
+package com.tharinduDev.bus.reservation.waitlist;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.WaitlistDetails;
+import com.tharinduDev.bus.reservation.exception.NoSeatsAvailableException;
+import com.tharinduDev.bus.reservation.exception.ReservationNotFoundException;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.SeatInventory;
+import com.tharinduDev.bus.reservation.inventory.SeatsReleasedEvent;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import com.tharinduDev.bus.reservation.service.ReservationEngine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Sold-out requests wait here until a cancellation frees seats on their segments. Joins and seat-release events
+// are handled one at a time on the "waitlist-matcher" thread, so a release can never slip in between a failed
+// booking attempt and the entry being queued. The matcher is driven only by SeatsReleasedEvent; it reads the
+// seat occupancy once per release and never polls. Entries leave the waiting map once allocated or failed; the
+// last retained-results of them are kept so clients can still read the outcome.
+@Service
+@Slf4j
+public class WaitlistService {
+
+    private final ReservationEngine reservationEngine;
+    private final BusLayouts busLayouts;
+    private final SeatRepository seatRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+
+    private final ExecutorService matcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-matcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, WaitlistEntry> waiting = new ConcurrentHashMap<>();
+    // allocated and failed entries, oldest evicted first
+    private final Map<String, WaitlistEntry> finished;
+    // owned by the matcher thread
+    private final Waitlist waitlist = new Waitlist();
+    private long nextSequence;
+
+    public WaitlistService(ReservationEngine reservationEngine, BusLayouts busLayouts, SeatRepository seatRepository,
+                           ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                           @Value("${reservation.waitlist.capacity:1000}") int capacity,
+                           @Value("${reservation.waitlist.retained-results:1000}") int retainedResults) {
+        this.reservationEngine = reservationEngine;
+        this.busLayouts = busLayouts;
+        this.seatRepository = seatRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.capacity = capacity;
+        this.finished = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, WaitlistEntry> eldest) {
+                return size() > retainedResults;
+            }
+        });
+    }
+
+    // books straight away when seats are free, otherwise queues the request
+    public WaitlistDetails join(ReservationInquiry request) {
+        try {
+            return matcher.submit(() -> enqueue(request)).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while joining the waitlist", ex);
+        }
+    }
+
+    public WaitlistDetails getEntry(String waitlistId) {
+        WaitlistEntry entry = waiting.get(waitlistId);
+        if (entry == null) {
+            entry = finished.get(waitlistId);
+        }
+        if (entry == null) {
+            log.warn("Waitlist entry not found: {}", waitlistId);
+            throw new ReservationNotFoundException("Waitlist entry not found: " + waitlistId);
+        }
+        return entry.toDetails();
+    }
+
+    @TransactionalEventListener
+    public void onSeatsReleased(SeatsReleasedEvent event) {
+        matcher.execute(() -> match(event));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matcher.shutdownNow();
+    }
+
+    private WaitlistDetails enqueue(ReservationInquiry request) {
+        WaitlistEntry entry = new WaitlistEntry(UUID.randomUUID().toString(), nextSequence++, request);
+        try {
+            ReservationDetails reservation = reservationEngine.reserve(request);
+            entry.allocated(reservation);
+            finished.put(entry.id, entry);
+            log.info("Waitlist request {} booked immediately as {}", entry.id, reservation.getReservationNumber());
+            return entry.toDetails();
+        } catch (NoSeatsAvailableException ex) {
+            if (waitlist.size() >= capacity) {
+                log.warn("Waitlist is full ({} entries), rejecting {} -> {}", capacity, request.getOrigin(), request.getDestination());
+                throw new NoSeatsAvailableException("Not enough seats available and the waitlist is full");
+            }
+        }
+        waitlist.add(entry);
+        waiting.put(entry.id, entry);
+        log.info("Waitlist request {} queued: {} passengers {} -> {}, {} waiting",
+                entry.id, request.getPassengerCount(), request.getOrigin(), request.getDestination(), waitlist.size());
+        return entry.toDetails();
+    }
+
+    private void match(SeatsReleasedEvent event) {
+        // only the releasing operator's bus has new seats
+        List<WaitlistEntry> candidates = waitlist.candidates(event.segmentMask()).stream()
+                .filter(entry -> entry.request.operatorOrDefault().equals(event.operatorId()))
+                .toList();
+        if (candidates.isEmpty()) {
+            return;
+        }
+        log.debug("Seats released by {}: {} waitlist candidates", event.reservationNumber(), candidates.size());
+
+        // read-write on purpose: a read-only transaction may go to a replica that has not seen the release yet
+        BusLayout layout = busLayouts.active();
+        SeatInventory snapshot = transactionTemplate.execute(status ->
+                SeatInventory.fromOccupancy(layout,
+                        seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(event.operatorId(), layout.seatNumbers())));
+        int[] seatIndexes = new int[snapshot.size()];
+        for (WaitlistEntry entry : candidates) {
+            int passengerCount = entry.request.getPassengerCount();
+            // reserve in the snapshot as well so later candidates see the seats as taken
+            if (!snapshot.allocate(entry.segmentMask, passengerCount, seatIndexes)) {
+                continue;
+            }
+            try {
+                ReservationDetails reservation = reservationEngine.reserve(entry.request);
+                entry.allocated(reservation);
+                finish(entry);
+                log.info("Waitlist request {} allocated seats {} as {}",
+                        entry.id, reservation.getSeatNumbers(), reservation.getReservationNumber());
+                eventPublisher.publishEvent(new WaitlistAllocatedEvent(entry.id, reservation));
+            } catch (NoSeatsAvailableException ex) {
+                // taken by a direct booking since the snapshot, keep waiting for the next release
+                snapshot.release(entry.segmentMask, passengerCount, seatIndexes);
+            } catch (RuntimeException ex) {
+                log.warn("Waitlist request {} can no longer be booked: {}", entry.id, ex.getMessage());
+                entry.failed(ex.getMessage());
+                finish(entry);
+            }
+        }
+    }
+
+    // the status is set before the entry moves, so a concurrent getEntry finds it in one map or the other
+    private void finish(WaitlistEntry entry) {
+        waitlist.remove(entry);
+        finished.put(entry.id, entry);
+        waiting.remove(entry.id);
+    }
+
+    int waitingCount() {
+        return waiting.size();
+    }
+}
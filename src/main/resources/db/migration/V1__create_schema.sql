@@ -0,0 +1,46 @@
+-- Initial schema, matches the JPA entities (checked with ddl-auto=validate)
+CREATE TABLE reservations (
+    passenger_count INTEGER NOT NULL,
+    total_price NUMERIC(38,2) NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    reservation_number VARCHAR(255) NOT NULL UNIQUE,
+    from_location ENUM ('A','B','C','D') NOT NULL,
+    to_location ENUM ('A','B','C','D') NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE routes (
+    price NUMERIC(38,2) NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    from_location ENUM ('A','B','C','D') NOT NULL,
+    to_location ENUM ('A','B','C','D') NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE seats (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    reservation_id BIGINT,
+    seat_number VARCHAR(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE outbox_events (
+    aggregate_version INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    published_at TIMESTAMP(6),
+    aggregate_id VARCHAR(255) NOT NULL,
+    event_id VARCHAR(255) NOT NULL UNIQUE,
+    event_type VARCHAR(255) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE seats ADD CONSTRAINT fk_seats_reservation FOREIGN KEY (reservation_id) REFERENCES reservations;
+
+-- stamped on the primary by ReplicaLagMonitor, read back from the replica to measure replication lag
+CREATE TABLE replication_heartbeat (
+    id INTEGER NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
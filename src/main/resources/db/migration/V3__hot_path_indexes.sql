@@ -0,0 +1,14 @@
+-- Indexes for the repository queries on the request path
+
+-- RouteRepository.findByFromLocationAndToLocation and findByFromLocation (leading column); one price per journey
+ALTER TABLE routes ADD CONSTRAINT uk_routes_from_to UNIQUE (from_location, to_location);
+
+-- loading Reservation.seats (seats by reservation_id) while computing overlaps, seat_number included so the
+-- seat numbers of a reservation come from the index alone
+CREATE INDEX ix_seats_reservation ON seats (reservation_id, seat_number);
+
+-- reservations by journey, for overlap checks restricted to the competing journeys
+CREATE INDEX ix_reservations_journey ON reservations (from_location, to_location, id);
+
+-- OutboxEventRepository.findByPublishedAtIsNullOrderByIdAsc, the relay's poll
+CREATE INDEX ix_outbox_unpublished ON outbox_events (published_at, id);
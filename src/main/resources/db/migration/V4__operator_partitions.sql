@@ -0,0 +1,8 @@
+-- Operator (tenant) that runs each route; bookings carry the operator of their route so one operator's
+-- inventory can be read and reconciled without touching the others
+
+ALTER TABLE routes ADD COLUMN operator_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+ALTER TABLE reservations ADD COLUMN operator_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+CREATE INDEX ix_reservations_operator ON reservations (operator_id, id);
@@ -0,0 +1,6 @@
+-- A journey is priced per operator: two operators may serve the same stops, each with its own route row
+
+ALTER TABLE routes DROP CONSTRAINT uk_routes_from_to;
+
+-- RouteRepository.findByOperatorIdAndFromLocationAndToLocation and findByOperatorIdAndFromLocation (leading columns)
+ALTER TABLE routes ADD CONSTRAINT uk_routes_operator_from_to UNIQUE (operator_id, from_location, to_location);
@@ -0,0 +1,3 @@
+-- ReservationSequencer takes its reservation numbers from here in blocks, so numbers stay unique across
+-- restarts and instances without a database round trip per booking
+CREATE SEQUENCE reservation_number_blocks START WITH 1;
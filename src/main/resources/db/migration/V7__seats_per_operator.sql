@@ -0,0 +1,30 @@
+-- Each operator runs its own bus: seats belong to an operator, and a seat number is unique per operator only.
+-- Existing seats are the default operator's; SeatCatalog adds the seats of the other operators at startup.
+-- The table is rebuilt because the old unique constraint on seat_number has no name to drop it by.
+
+CREATE TABLE seats_per_operator (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    reservation_id BIGINT,
+    seat_number VARCHAR(255) NOT NULL,
+    operator_id VARCHAR(64) DEFAULT 'default' NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO seats_per_operator (reservation_id, seat_number) SELECT reservation_id, seat_number FROM seats ORDER BY id;
+
+DROP TABLE seats;
+
+ALTER TABLE seats_per_operator RENAME TO seats;
+
+ALTER TABLE seats ADD CONSTRAINT fk_seats_reservation FOREIGN KEY (reservation_id) REFERENCES reservations;
+
+-- SeatRepository.findByOperatorIdAndSeatNumberIn and findOccupancyByOperatorIdAndSeatNumberIn
+ALTER TABLE seats ADD CONSTRAINT uk_seats_operator_number UNIQUE (operator_id, seat_number);
+
+-- as in V3: loading Reservation.seats, seat numbers from the index alone
+CREATE INDEX ix_seats_reservation ON seats (reservation_id, seat_number);
+
+-- overlap checks only read the reservations of the booked operator
+DROP INDEX ix_reservations_journey;
+
+CREATE INDEX ix_reservations_operator_journey ON reservations (operator_id, from_location, to_location, id);
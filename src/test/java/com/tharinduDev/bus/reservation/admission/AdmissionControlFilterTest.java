@@ -0,0 +1,127 @@
+package com.tharinduDev.bus.reservation.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tokenBucket_AllowsBurstThenReportsWait() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+
+        long waitNanos = bucket.tryAcquire(now);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), waitNanos);
+
+        // one emission interval later a single permit is available again
+        assertEquals(0, bucket.tryAcquire(now + waitNanos));
+        assertTrue(bucket.tryAcquire(now + waitNanos) > 0);
+        assertTrue(bucket.isIdle(now + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void filter_RateLimitedClient_Gets429WithRetryAfter() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(1, 1, 100),
+                new AdaptiveConcurrencyLimiter(10, 1, 10, TimeUnit.SECONDS.toNanos(1)), "X-API-Key", meterRegistry);
+
+        MockHttpServletResponse first = perform(filter, "partner-1");
+        MockHttpServletResponse second = perform(filter, "partner-1");
+        MockHttpServletResponse otherClient = perform(filter, "partner-2");
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+        assertTrue(second.getContentAsString().contains("Too many requests"));
+        assertEquals(200, otherClient.getStatus());
+        assertEquals(1.0, meterRegistry.get("reservation.admission.rejected").tag("reason", "rate-limit").counter().count());
+    }
+
+    @Test
+    void clientRateLimiter_TrackedClientsFull_NewClientsShareOverflowBucket() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 2,
+                Map.of("bulk-partner", new AdmissionControlProperties.ClientRate(1000, 1000)));
+
+        assertEquals(0, limiter.tryAcquire("client-1"));
+        assertEquals(0, limiter.tryAcquire("client-2"));
+
+        // both tracked buckets are still busy, so nothing can be evicted: the spray shares one bucket
+        assertEquals(0, limiter.tryAcquire("spray-1"));
+        assertTrue(limiter.tryAcquire("spray-2") > 0);
+        assertTrue(limiter.tryAcquire("spray-3") > 0);
+        assertEquals(2, limiter.trackedClients());
+
+        // configured clients always get their own bucket at their own rate
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("bulk-partner"));
+        }
+        assertEquals(3, limiter.trackedClients());
+    }
+
+    @Test
+    void filter_ConcurrencyLimitReached_Gets429() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1, TimeUnit.SECONDS.toNanos(1));
+        AdmissionControlFilter filter = new AdmissionControlFilter(new ClientRateLimiter(100, 100, 100),
+                concurrencyLimiter, "X-API-Key", meterRegistry);
+
+        // hold the only slot while a second request arrives
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain slowChain = (request, response) -> nested[0] = perform(filter, "partner-2");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/reservations/reserve");
+        request.addHeader("X-API-Key", "partner-1");
+        filter.doFilter(request, new MockHttpServletResponse(), slowChain);
+
+        assertEquals(429, nested[0].getStatus());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("reservation.admission.rejected").tag("reason", "concurrency-limit").counter().count());
+    }
+
+    @Test
+    void concurrencyLimiter_IncreasesOnFastAndBacksOffOnSlowRequests() {
+        long target = TimeUnit.MILLISECONDS.toNanos(100);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, target);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(target / 2);
+        assertEquals(3, limiter.getLimit());
+
+        limiter.release(target * 2);
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(target * 2);
+        }
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private MockHttpServletResponse perform(AdmissionControlFilter filter, String apiKey) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/reservations/check-availability");
+        request.addHeader("X-API-Key", apiKey);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
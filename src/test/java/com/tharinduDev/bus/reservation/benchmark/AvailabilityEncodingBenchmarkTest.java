@@ -0,0 +1,71 @@
+package com.tharinduDev.bus.reservation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.CompactAvailabilityReport;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compares payload size and serialization cost of the JSON AvailabilityReport against the CBOR bitmap variant.
+// Run with: mvn -Pbenchmark test
+@Tag("benchmark")
+public class AvailabilityEncodingBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @Test
+    void compareJsonAndCborAvailabilityEncoding() throws Exception {
+        // full 40 seat bus with every second seat available
+        List<String> seatNumbers = new ArrayList<>();
+        BitSet bitmap = new BitSet(40);
+        for (int i = 0; i < 40; i++) {
+            if (i % 2 == 0) {
+                seatNumbers.add((i / 4 + 1) + String.valueOf((char) ('A' + i % 4)));
+                bitmap.set(i);
+            }
+        }
+        AvailabilityReport jsonReport = new AvailabilityReport(seatNumbers.size(), new BigDecimal("100.00"),
+                new BigDecimal("200.00"), seatNumbers);
+        CompactAvailabilityReport compactReport = new CompactAvailabilityReport(seatNumbers.size(),
+                new BigDecimal("100.00"), new BigDecimal("200.00"), 40, "standard-40", bitmap.toByteArray());
+
+        int jsonSize = jsonMapper.writeValueAsBytes(jsonReport).length;
+        int cborSize = cborMapper.writeValueAsBytes(compactReport).length;
+
+        double jsonNanos = measure(() -> jsonMapper.writeValueAsBytes(jsonReport));
+        double cborNanos = measure(() -> cborMapper.writeValueAsBytes(compactReport));
+
+        System.out.printf("JSON AvailabilityReport       : %4d bytes, %8.1f ns/op%n", jsonSize, jsonNanos);
+        System.out.printf("CBOR CompactAvailabilityReport: %4d bytes, %8.1f ns/op%n", cborSize, cborNanos);
+
+        assertTrue(cborSize < jsonSize, "bitmap payload should be smaller than the seat number list");
+    }
+
+    private double measure(Serialization serialization) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            serialization.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            serialization.run();
+        }
+        return (System.nanoTime() - start) / (double) MEASURED_ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Serialization {
+        byte[] run() throws Exception;
+    }
+}
@@ -0,0 +1,102 @@
+package com.tharinduDev.bus.reservation.benchmark;
+
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.service.ReservationSequencer;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import com.tharinduDev.bus.reservation.service.SegmentCapacityReconciler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Booking throughput of the @Transactional reserveTickets path against the single-writer sequencer
+// at 1, 8 and 64 concurrent clients. Run with: mvn -Pbenchmark test
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "reservation.engine.mode=sequencer",
+        "spring.datasource.url=jdbc:h2:mem:booking-benchmark",
+        "logging.level.com.tharinduDev=WARN"
+})
+public class BookingEngineBenchmarkTest {
+
+    private static final int ROUNDS = 20;
+    // every single-segment journey of every seat: 40 seats x 3 segments x 2 directions
+    private static final int BOOKINGS_PER_ROUND = 240;
+    private static final Location[][] SEGMENTS = {
+            {Location.A, Location.B}, {Location.B, Location.C}, {Location.C, Location.D},
+            {Location.B, Location.A}, {Location.C, Location.B}, {Location.D, Location.C}
+    };
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationSequencer reservationSequencer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SegmentCapacityReconciler segmentCapacityReconciler;
+
+    @Test
+    void compareTransactionalAndSequencedBooking() throws Exception {
+        for (int clients : new int[]{1, 8, 64}) {
+            run("transactional", clients, reservationService::reserveTickets);
+            run("sequencer    ", clients, reservationSequencer::reserve);
+        }
+    }
+
+    private void run(String engine, int clients, Consumer<ReservationInquiry> booking) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        AtomicInteger failures = new AtomicInteger();
+        long totalNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            reset();
+            AtomicInteger next = new AtomicInteger();
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                futures.add(executor.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < BOOKINGS_PER_ROUND) {
+                        Location[] segment = SEGMENTS[i % SEGMENTS.length];
+                        try {
+                            booking.accept(new ReservationInquiry(1, segment[0], segment[1], new BigDecimal("50.00")));
+                        } catch (RuntimeException ex) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            totalNanos += System.nanoTime() - start;
+        }
+        executor.shutdown();
+
+        // every booking of a round fits exactly, so failures indicate lost or conflicting updates
+        Integer persisted = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seats WHERE reservation_id IS NOT NULL", Integer.class);
+        System.out.printf("%s %2d clients: %8.0f bookings/s, %d failed, %d seats linked after last round%n",
+                engine, clients, ROUNDS * BOOKINGS_PER_ROUND / (totalNanos / 1e9), failures.get(), persisted);
+    }
+
+    private void reset() {
+        jdbcTemplate.update("UPDATE seats SET reservation_id = NULL");
+        jdbcTemplate.update("DELETE FROM reservations");
+        reservationSequencer.reloadInventory().join();
+        segmentCapacityReconciler.reconcile();
+    }
+}
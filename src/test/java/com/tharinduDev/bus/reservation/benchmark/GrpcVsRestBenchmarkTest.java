@@ -0,0 +1,116 @@
+package com.tharinduDev.bus.reservation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.grpc.ReservationGrpcMethods;
+import com.tharinduDev.bus.reservation.grpc.ReservationGrpcServer;
+import io.grpc.CallOptions;
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.ClientCalls;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Latency and throughput of CheckAvailability over gRPC compared with the REST JSON endpoint.
+// Run with: mvn -Pbenchmark test
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"grpc.server.enabled=true", "grpc.server.port=0", "logging.level.com.tharinduDev=WARN",
+                "reservation.admission.enabled=false", "reservation.tenancy.enabled=false"})
+public class GrpcVsRestBenchmarkTest {
+
+    private static final int WARMUP_CALLS = 500;
+    private static final int MEASURED_CALLS = 2_000;
+    private static final int CLIENT_THREADS = 8;
+
+    @LocalServerPort
+    private int httpPort;
+
+    @Autowired
+    private ReservationGrpcServer grpcServer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TicketInquiry inquiry = new TicketInquiry(2, Location.A, Location.C);
+
+    @Test
+    void compareCheckAvailabilityLatencyAndThroughput() throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String body = objectMapper.writeValueAsString(inquiry);
+        HttpRequest restRequest = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + httpPort + "/api/v1/reservations/check-availability"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        Call restCall = () -> assertEquals(200, httpClient.send(restRequest, HttpResponse.BodyHandlers.ofByteArray()).statusCode());
+
+        ManagedChannel channel = Grpc.newChannelBuilderForAddress("localhost", grpcServer.getPort(),
+                InsecureChannelCredentials.create()).build();
+        Call grpcCall = () -> ClientCalls.blockingUnaryCall(channel, ReservationGrpcMethods.CHECK_AVAILABILITY,
+                CallOptions.DEFAULT, inquiry);
+
+        try {
+            report("REST", restCall);
+            report("gRPC", grpcCall);
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+
+    private void report(String name, Call call) throws Exception {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+
+        long[] latencies = new long[MEASURED_CALLS];
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            long start = System.nanoTime();
+            call.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        long start = System.nanoTime();
+        Future<?>[] futures = new Future<?>[CLIENT_THREADS];
+        for (int t = 0; t < CLIENT_THREADS; t++) {
+            futures[t] = clients.submit(() -> {
+                for (int i = 0; i < MEASURED_CALLS / CLIENT_THREADS; i++) {
+                    call.run();
+                }
+                return null;
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+        clients.awaitTermination(10, TimeUnit.SECONDS);
+
+        System.out.printf("%s check-availability: p50 %6.1f us, p99 %6.1f us, throughput %8.0f req/s (%d clients)%n",
+                name, latencies[MEASURED_CALLS / 2] / 1e3, latencies[MEASURED_CALLS * 99 / 100] / 1e3,
+                (MEASURED_CALLS / CLIENT_THREADS) * CLIENT_THREADS / seconds, CLIENT_THREADS);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        void run() throws Exception;
+    }
+}
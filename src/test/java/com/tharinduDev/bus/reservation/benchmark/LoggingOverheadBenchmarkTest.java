@@ -0,0 +1,153 @@
+package com.tharinduDev.bus.reservation.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.tharinduDev.bus.reservation.controller.ReservationController;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.logging.RequestLogSampler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Availability-check throughput through the controller with the application logs off, on the synchronous
+// pattern appender, on the async JSON appender, and async with 10% request sampling. Logs go to files under
+// target/logging-benchmark so the I/O is real. Run with: mvn -Pbenchmark test
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:logging-benchmark",
+        "reservation.admission.enabled=false",
+        "reservation.tenancy.enabled=false"
+})
+public class LoggingOverheadBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int CHECKS_PER_THREAD = 1_000;
+    private static final Path LOG_DIRECTORY = Path.of("target", "logging-benchmark");
+
+    @Autowired
+    private ReservationController reservationController;
+
+    @Test
+    void compareLoggingModes() throws Exception {
+        Files.createDirectories(LOG_DIRECTORY);
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        ch.qos.logback.classic.Logger application = context.getLogger("com.tharinduDev.bus.reservation");
+        List<Appender<ILoggingEvent>> originalAppenders = detachAll(root);
+        try {
+            // warm-up with logs off, the JIT has to settle before the first measured mode
+            application.setLevel(Level.WARN);
+            run(CHECKS_PER_THREAD / 2, 1.0);
+
+            report("logging off", run(CHECKS_PER_THREAD, 1.0));
+            application.setLevel(Level.INFO);
+
+            Appender<ILoggingEvent> sync = fileAppender(context, "sync.log", patternEncoder(context));
+            root.addAppender(sync);
+            report("sync pattern", run(CHECKS_PER_THREAD, 1.0));
+            root.detachAppender(sync);
+            sync.stop();
+
+            for (double sampleRate : new double[]{1.0, 0.1}) {
+                AsyncAppender async = new AsyncAppender();
+                async.setContext(context);
+                async.setQueueSize(8192);
+                async.setNeverBlock(true);
+                async.addAppender(fileAppender(context, "async-" + sampleRate + ".log", jsonEncoder(context)));
+                async.start();
+                root.addAppender(async);
+                report("async json, sample " + sampleRate, run(CHECKS_PER_THREAD, sampleRate));
+                root.detachAppender(async);
+                async.stop();
+            }
+        } finally {
+            originalAppenders.forEach(root::addAppender);
+        }
+    }
+
+    private double run(int checksPerThread, double sampleRate) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        TicketInquiry request = new TicketInquiry(2, Location.A, Location.C);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < checksPerThread; i++) {
+                    RequestLogSampler.begin(sampleRate);
+                    try {
+                        reservationController.checkAvailability(request, null);
+                    } finally {
+                        RequestLogSampler.end();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return THREADS * checksPerThread / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void report(String mode, double checksPerSecond) {
+        // System.out, the application loggers are what is being measured
+        System.out.printf("%-24s %8.0f checks/s%n", mode, checksPerSecond);
+    }
+
+    private static List<Appender<ILoggingEvent>> detachAll(ch.qos.logback.classic.Logger root) {
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            appenders.add(it.next());
+        }
+        root.detachAndStopAllAppenders();
+        appenders.forEach(Appender::start);
+        return appenders;
+    }
+
+    private static Appender<ILoggingEvent> fileAppender(LoggerContext context, String file, Encoder<ILoggingEvent> encoder) {
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setFile(LOG_DIRECTORY.resolve(file).toString());
+        appender.setAppend(false);
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private static Encoder<ILoggingEvent> patternEncoder(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+        return encoder;
+    }
+
+    private static Encoder<ILoggingEvent> jsonEncoder(LoggerContext context) {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(context);
+        encoder.setFormat("logstash");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        return encoder;
+    }
+}
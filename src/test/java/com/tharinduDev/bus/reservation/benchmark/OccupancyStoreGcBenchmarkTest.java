@@ -0,0 +1,137 @@
+package com.tharinduDev.bus.reservation.benchmark;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.inventory.BusLayout;
+import com.tharinduDev.bus.reservation.inventory.OffHeapOccupancyStore;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Heap size and GC time of a 50M seat-state horizon (1.25M departures of a 40 seat bus) held on-heap as one
+// occupancy array per departure, against the same horizon in an OffHeapOccupancyStore, while request-shaped
+// garbage is allocated alongside. Run with: mvn -Pbenchmark test
+@Tag("benchmark")
+public class OccupancyStoreGcBenchmarkTest {
+
+    private static final BusLayout LAYOUT = BusLayout.grid("standard-40", 10, "ABCD", "", 0);
+    private static final int DEPARTURES = 1_250_000;
+    private static final int OPERATIONS = 5_000_000;
+    private static final int[] MASKS = {
+            SegmentMask.of(Location.A, Location.B), SegmentMask.of(Location.B, Location.C),
+            SegmentMask.of(Location.C, Location.D), SegmentMask.of(Location.A, Location.D),
+            SegmentMask.of(Location.D, Location.A), SegmentMask.of(Location.C, Location.A)
+    };
+
+    // keeps the per-request garbage reachable for a short while, as in-flight requests do
+    private final Object[] inFlight = new Object[4096];
+
+    @Test
+    void compareOnHeapAndOffHeapOccupancy() {
+        long baselineHeap = usedHeapAfterGc();
+
+        List<byte[]> onHeap = new ArrayList<>(DEPARTURES);
+        for (int departure = 0; departure < DEPARTURES; departure++) {
+            onHeap.add(new byte[LAYOUT.size()]);
+        }
+        long onHeapBytes = usedHeapAfterGc() - baselineHeap;
+        Result onHeapResult = run(new Occupancy() {
+            @Override
+            public boolean occupy(int departure, int seat, int mask) {
+                byte[] seats = onHeap.get(departure);
+                if ((seats[seat] & mask) != 0) {
+                    return false;
+                }
+                seats[seat] |= (byte) mask;
+                return true;
+            }
+
+            @Override
+            public void release(int departure, int seat, int mask) {
+                onHeap.get(departure)[seat] &= (byte) ~mask;
+            }
+        });
+        onHeap.clear();
+
+        baselineHeap = usedHeapAfterGc();
+        OffHeapOccupancyStore store = OffHeapOccupancyStore.allocate(LAYOUT, DEPARTURES);
+        long offHeapBytes = usedHeapAfterGc() - baselineHeap;
+        int[] releasedSeat = new int[1];
+        Result offHeapResult = run(new Occupancy() {
+            @Override
+            public boolean occupy(int departure, int seat, int mask) {
+                return store.occupy(departure, seat, mask);
+            }
+
+            @Override
+            public void release(int departure, int seat, int mask) {
+                releasedSeat[0] = seat;
+                store.release(departure, mask, 1, releasedSeat);
+            }
+        });
+
+        System.out.printf("%,d seat states%n", (long) DEPARTURES * LAYOUT.size());
+        print("on-heap ", onHeapBytes, onHeapResult);
+        print("off-heap", offHeapBytes, offHeapResult);
+
+        assertTrue(offHeapBytes < onHeapBytes / 10, "off-heap horizon should leave the heap nearly empty");
+    }
+
+    private Result run(Occupancy occupancy) {
+        SplittableRandom random = new SplittableRandom(42);
+        long collectionsBefore = collections();
+        long gcMillisBefore = gcMillis();
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int departure = random.nextInt(DEPARTURES);
+            int seat = random.nextInt(LAYOUT.size());
+            int mask = MASKS[random.nextInt(MASKS.length)];
+            if (!occupancy.occupy(departure, seat, mask)) {
+                occupancy.release(departure, seat, mask);
+            }
+            // the request, response and seat number strings of a booking
+            inFlight[i & (inFlight.length - 1)] = new Object[]{new byte[256], LAYOUT.seatNumber(seat) + departure};
+        }
+        return new Result(collections() - collectionsBefore, gcMillis() - gcMillisBefore,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void print(String variant, long heapBytes, Result result) {
+        System.out.printf("%s: %,6d MB heap, %4d collections, %6d ms GC (%.2f ms per pause), %6d ms total%n",
+                variant, heapBytes >> 20, result.collections, result.gcMillis,
+                result.gcMillis / (double) Math.max(1, result.collections), result.elapsedMillis);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long collections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private interface Occupancy {
+        boolean occupy(int departure, int seat, int mask);
+
+        void release(int departure, int seat, int mask);
+    }
+
+    private record Result(long collections, long gcMillis, long elapsedMillis) { }
+}
@@ -0,0 +1,173 @@
+package com.tharinduDev.bus.reservation.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.AvailabilitySearchReport;
+import com.tharinduDev.bus.reservation.dto.AvailabilitySearchRequest;
+import com.tharinduDev.bus.reservation.dto.DestinationAvailability;
+import com.tharinduDev.bus.reservation.dto.ItineraryLeg;
+import com.tharinduDev.bus.reservation.dto.ItineraryOption;
+import com.tharinduDev.bus.reservation.dto.ItinerarySearchReport;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.exception.GlobalExceptionHandler;
+import com.tharinduDev.bus.reservation.inventory.AvailabilityVersions;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import com.tharinduDev.bus.reservation.service.ItineraryService;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AvailabilityController.class)
+@Import({GlobalExceptionHandler.class, AvailabilityVersions.class})
+public class AvailabilityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ReservationService reservationService;
+
+    @MockBean
+    private ItineraryService itineraryService;
+
+    @Autowired
+    private AvailabilityVersions availabilityVersions;
+
+    private static final String API_ENDPOINT_SEARCH = "/api/v1/availability/search";
+    private static final String API_ENDPOINT_ITINERARIES = "/api/v1/availability/itineraries";
+    private static final String API_ENDPOINT_JOURNEY = "/api/v1/availability";
+
+    @Test
+    void journeyAvailability_CacheableAndRevalidatedWithETag() throws Exception {
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenReturn(new AvailabilityReport(40, new BigDecimal("100.00"), new BigDecimal("200.00"), List.of("1A")));
+
+        String etag = mockMvc.perform(get(API_ENDPOINT_JOURNEY)
+                        .param("origin", "A").param("destination", "C").param("passengerCount", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=2, must-revalidate, public, s-maxage=2"))
+                .andExpect(jsonPath("$.availableSeats").value(40))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(API_ENDPOINT_JOURNEY)
+                        .param("origin", "A").param("destination", "C").param("passengerCount", "2")
+                        .header("If-None-Match", "W/" + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        verify(reservationService, times(1)).checkAvailability(any());
+
+        availabilityVersions.changed(Route.DEFAULT_OPERATOR, SegmentMask.of(Location.A, Location.B));
+        mockMvc.perform(get(API_ENDPOINT_JOURNEY)
+                        .param("origin", "A").param("destination", "C").param("passengerCount", "2")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void journeyAvailability_OtherOperatorOnSameStops_DoesNotRevalidate() throws Exception {
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenReturn(new AvailabilityReport(40, new BigDecimal("100.00"), new BigDecimal("200.00"), List.of("1A")));
+
+        String etag = mockMvc.perform(get(API_ENDPOINT_JOURNEY)
+                        .param("origin", "A").param("destination", "C").param("passengerCount", "2")
+                        .param("operatorId", "north-line"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        String otherEtag = mockMvc.perform(get(API_ENDPOINT_JOURNEY)
+                        .param("origin", "A").param("destination", "C").param("passengerCount", "2")
+                        .param("operatorId", "south-line")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(etag, otherEtag);
+        verify(reservationService, times(2)).checkAvailability(any());
+    }
+
+    @Test
+    void journeyAvailability_ValidationFailure_MissingDestination() throws Exception {
+        mockMvc.perform(get(API_ENDPOINT_JOURNEY)
+                        .param("origin", "A").param("passengerCount", "2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.destination").value("Destination location is required"));
+    }
+
+    @Test
+    void searchAvailability_Success() throws Exception {
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest(5, Location.B);
+
+        AvailabilitySearchReport mockResponse = new AvailabilitySearchReport(Location.B, 5, List.of(
+                new DestinationAvailability(Location.A, 40, new BigDecimal("50.00"), new BigDecimal("250.00"), List.of("1A")),
+                new DestinationAvailability(Location.D, 3, new BigDecimal("100.00"), new BigDecimal("500.00"), List.of("9D"))));
+
+        when(reservationService.searchAvailability(any(AvailabilitySearchRequest.class)))
+                .thenReturn(mockResponse);
+
+        mockMvc.perform(post(API_ENDPOINT_SEARCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.origin").value("B"))
+                .andExpect(jsonPath("$.destinations", hasSize(2)))
+                .andExpect(jsonPath("$.destinations[1].destination").value("D"))
+                .andExpect(jsonPath("$.destinations[1].availableSeats").value(3))
+                .andExpect(jsonPath("$.destinations[1].totalPrice").value(500.00));
+    }
+
+    @Test
+    void searchAvailability_ValidationFailure_MissingOrigin() throws Exception {
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest(5, null);
+
+        mockMvc.perform(post(API_ENDPOINT_SEARCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.origin").value("Origin location is required"));
+    }
+
+    @Test
+    void searchItineraries_Success() throws Exception {
+        TicketInquiry request = new TicketInquiry(2, Location.A, Location.C);
+
+        ItinerarySearchReport mockResponse = new ItinerarySearchReport(Location.A, Location.C, 2, List.of(
+                new ItineraryOption(1, new BigDecimal("100.00"), new BigDecimal("200.00"), List.of(
+                        new ItineraryLeg(Location.A, Location.B, new BigDecimal("50.00"), 5, List.of("6A")),
+                        new ItineraryLeg(Location.B, Location.C, new BigDecimal("50.00"), 5, List.of("1A"))))));
+
+        when(itineraryService.searchItineraries(any(TicketInquiry.class)))
+                .thenReturn(mockResponse);
+
+        mockMvc.perform(post(API_ENDPOINT_ITINERARIES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.options", hasSize(1)))
+                .andExpect(jsonPath("$.options[0].transfers").value(1))
+                .andExpect(jsonPath("$.options[0].totalPrice").value(200.00))
+                .andExpect(jsonPath("$.options[0].legs[1].origin").value("B"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tharinduDev.bus.reservation.controller;
+
+import com.tharinduDev.bus.reservation.inventory.FleetConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LayoutController.class)
+@Import(FleetConfig.class)
+public class LayoutControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void seatNumbers_InLayoutIndexOrder() throws Exception {
+        mockMvc.perform(get("/api/v1/layouts/midi-29/seats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600"))
+                .andExpect(jsonPath("$", hasSize(29)))
+                .andExpect(jsonPath("$[0]").value("1A"))
+                .andExpect(jsonPath("$[3]").value("2A"))
+                .andExpect(jsonPath("$[28]").value("9E"));
+    }
+
+    @Test
+    void seatNumbers_UnknownLayout_NotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/layouts/double-decker/seats"))
+                .andExpect(status().isNotFound());
+    }
+}
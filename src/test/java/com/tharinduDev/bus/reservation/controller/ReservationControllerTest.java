@@ -2,13 +2,20 @@ package com.tharinduDev.bus.reservation.controller;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.CompactAvailabilityReport;
 import com.tharinduDev.bus.reservation.dto.ReservationDetails;
 import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
 import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.entity.Route;
 import com.tharinduDev.bus.reservation.enums.Location;
 import com.tharinduDev.bus.reservation.exception.GlobalExceptionHandler;
 import com.tharinduDev.bus.reservation.exception.InvalidReservationException;
+import com.tharinduDev.bus.reservation.exception.ReservationNotFoundException;
+import com.tharinduDev.bus.reservation.inventory.AvailabilityVersions;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import com.tharinduDev.bus.reservation.service.ReservationEngine;
 import com.tharinduDev.bus.reservation.service.ReservationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,13 +30,20 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ReservationController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, AvailabilityVersions.class, ReservationEngine.class})
 public class ReservationControllerTest {
 
     @Autowired
@@ -41,8 +55,14 @@ public class ReservationControllerTest {
     @MockBean
     private ReservationService reservationService;
 
+    @Autowired
+    private AvailabilityVersions availabilityVersions;
+
     private static final String API_ENDPOINT_CHECK_AVAILABILITY = "/api/v1/reservations/check-availability";
     private static final String API_ENDPOINT_RESERVE = "/api/v1/reservations/reserve";
+    private static final String API_ENDPOINT_CANCEL = "/api/v1/reservations/{reservationNumber}";
+
+    private final CBORMapper cborMapper = new CBORMapper();
 
     @Test
     void checkAvailability_Success() throws Exception {
@@ -70,15 +90,124 @@ public class ReservationControllerTest {
                 .andExpect(jsonPath("$.totalPrice").value(200.00));
     }
 
+    @Test
+    void checkAvailability_Cbor_ReturnsPackedSeatBitmap() throws Exception {
+        TicketInquiry request = new TicketInquiry(2, Location.A, Location.C);
+
+        CompactAvailabilityReport mockResponse = new CompactAvailabilityReport(
+                2, new BigDecimal("100.00"), new BigDecimal("200.00"), 40, "standard-40", new byte[]{0b0000_0101});
+
+        when(reservationService.checkAvailabilityCompact(any(TicketInquiry.class)))
+                .thenReturn(mockResponse);
+
+        byte[] body = mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CompactAvailabilityReport response = cborMapper.readValue(body, CompactAvailabilityReport.class);
+        assertEquals(2, response.getAvailableSeats());
+        assertEquals(40, response.getTotalSeats());
+        assertEquals("standard-40", response.getLayout());
+        assertArrayEquals(new byte[]{0b0000_0101}, response.getAvailableSeatBitmap());
+        verify(reservationService, never()).checkAvailability(any());
+    }
+
+    @Test
+    void checkAvailability_DefaultsToJson_WhenAnyMediaTypeAccepted() throws Exception {
+        TicketInquiry request = new TicketInquiry(2, Location.A, Location.C);
+
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenReturn(new AvailabilityReport(40, new BigDecimal("100.00"), new BigDecimal("200.00"), List.of("1A")));
+
+        mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.ALL)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.availableSeatNumbers[0]").value("1A"));
+    }
+
+    @Test
+    void checkAvailability_UnchangedETag_Returns304WithoutComputingAvailability() throws Exception {
+        TicketInquiry request = new TicketInquiry(2, Location.A, Location.C);
+
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenReturn(new AvailabilityReport(40, new BigDecimal("100.00"), new BigDecimal("200.00"), List.of("1A")));
+
+        String etag = mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        verify(reservationService, times(1)).checkAvailability(any());
+
+        // a booking on the return direction does not touch A -> C, one on B -> D does
+        availabilityVersions.changed(Route.DEFAULT_OPERATOR, SegmentMask.of(Location.D, Location.A));
+        mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotModified());
+
+        availabilityVersions.changed(Route.DEFAULT_OPERATOR, SegmentMask.of(Location.B, Location.D));
+        String changedEtag = mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", etag)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableSeats").value(40))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changedEtag);
+        verify(reservationService, times(2)).checkAvailability(any());
+    }
+
+    @Test
+    void checkAvailability_CborAndJson_HaveDistinctETags() throws Exception {
+        TicketInquiry request = new TicketInquiry(2, Location.A, Location.C);
+
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenReturn(new AvailabilityReport(40, new BigDecimal("100.00"), new BigDecimal("200.00"), List.of("1A")));
+        when(reservationService.checkAvailabilityCompact(any(TicketInquiry.class)))
+                .thenReturn(new CompactAvailabilityReport(2, new BigDecimal("100.00"), new BigDecimal("200.00"), 40, "standard-40", new byte[]{1}));
+
+        String jsonEtag = mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // the JSON tag does not validate a cached CBOR body
+        mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", jsonEtag)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", containsString("-cbor")));
+    }
+
     @Test
     void checkAvailability_ValidationFailure_MaxPassengers() throws Exception {
-        TicketInquiry invalidInquiry = new TicketInquiry(41, Location.A, Location.D);
+        TicketInquiry invalidInquiry = new TicketInquiry(55, Location.A, Location.D);
 
         mockMvc.perform(post(API_ENDPOINT_CHECK_AVAILABILITY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidInquiry)))
                 .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.passengerCount").value("Number of passengers cannot exceed 40"));
+                .andExpect(jsonPath("$.passengerCount").value("Number of passengers cannot exceed 54"));
     }
 
     @Test
@@ -137,6 +266,25 @@ public class ReservationControllerTest {
 
     }
 
+    @Test
+    void cancelReservation_Success() throws Exception {
+        ReservationDetails mockResponse = new ReservationDetails(
+                "RES-20251117120413-732", List.of("1A", "1B"), Location.A, Location.B, new BigDecimal("100.00"));
+
+        when(reservationService.cancelReservation("RES-20251117120413-732")).thenReturn(mockResponse);
+
+        mockMvc.perform(delete(API_ENDPOINT_CANCEL, "RES-20251117120413-732"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatNumbers", hasSize(2)));
+    }
 
+    @Test
+    void cancelReservation_NotFound() throws Exception {
+        when(reservationService.cancelReservation("RES-404"))
+                .thenThrow(new ReservationNotFoundException("Reservation not found: RES-404"));
 
+        mockMvc.perform(delete(API_ENDPOINT_CANCEL, "RES-404"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Reservation not found: RES-404"));
+    }
 }
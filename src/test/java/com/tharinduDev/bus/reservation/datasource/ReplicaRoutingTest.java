@@ -0,0 +1,141 @@
+package com.tharinduDev.bus.reservation.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two H2 databases stand in for primary and replica. Nothing replicates between them: the primary sees
+// bookings, the replica keeps the initial 40 free seats, so the availability answer shows which one served it.
+// The availability search is untagged and may be served by the replica; ETag-tagged availability is read from
+// the replica only once it has replicated past the version of the tag.
+// Replication progress is simulated by stamping the replica's heartbeat row.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing-primary",
+        "reservation.datasource.replica.enabled=true",
+        "reservation.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "reservation.datasource.replica.staleness-budget=5s",
+        "reservation.datasource.replica.heartbeat-interval=1h",
+        "reservation.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final String CHECK = "{\"passengerCount\":1,\"origin\":\"A\",\"destination\":\"B\"}";
+    private static final String SEARCH = "{\"passengerCount\":1,\"origin\":\"A\"}";
+    private static final String RESERVE = "{\"passengerCount\":2,\"origin\":\"A\",\"destination\":\"B\",\"priceConfirmation\":100.00}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    // the replica starts as a copy of the migrated primary
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void replicaCaughtUp() {
+        replicate(System.currentTimeMillis());
+    }
+
+    @Test
+    void writingClientReadsPrimary_OthersReadReplicaWithinBudget() throws Exception {
+        mockMvc.perform(post("/api/v1/reservations/reserve").header("X-API-Key", "writer")
+                        .contentType(MediaType.APPLICATION_JSON).content(RESERVE))
+                .andExpect(status().isCreated());
+        int primarySeats = 40 - bookedOnPrimary();
+
+        // the replica has not seen the booking yet, the writer must still see it
+        availableSeats("writer", primarySeats);
+        availableSeats("reader", 40);
+
+        // once the replica has caught up past the write, the writer is served by it too
+        Thread.sleep(5);
+        replicate(System.currentTimeMillis());
+        availableSeats("writer", 40);
+
+        // lag beyond the staleness budget sends every read to the primary
+        replicate(System.currentTimeMillis() - 10_000);
+        availableSeats("reader", primarySeats);
+    }
+
+    @Test
+    void taggedAvailability_ReadFromReplicaOnceItHasTheVersion() throws Exception {
+        mockMvc.perform(post("/api/v1/reservations/reserve").header("X-API-Key", "tag-writer")
+                        .contentType(MediaType.APPLICATION_JSON).content(RESERVE))
+                .andExpect(status().isCreated());
+        int primarySeats = 40 - bookedOnPrimary();
+
+        // the replica is within budget and this client never wrote, but the replica is behind the tagged version
+        taggedSeats("tag-reader", primarySeats);
+        availableSeats("tag-reader", 40);
+
+        // replicated past the version: the replica's body is as new as the tag
+        Thread.sleep(5);
+        replicate(System.currentTimeMillis());
+        taggedSeats("tag-reader", 40);
+    }
+
+    private int bookedOnPrimary() {
+        Integer booked = new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT COUNT(*) FROM seats WHERE reservation_id IS NOT NULL", Integer.class);
+        return booked == null ? 0 : booked;
+    }
+
+    private void replicate(long upToMillis) {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.update("DELETE FROM replication_heartbeat");
+        replica.update("INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, ?)", upToMillis);
+        lagMonitor.heartbeat();
+    }
+
+    // seats left A -> B as seen by both ETag-tagged availability endpoints
+    private void taggedSeats(String client, int expected) throws Exception {
+        mockMvc.perform(post("/api/v1/reservations/check-availability").header("X-API-Key", client)
+                        .contentType(MediaType.APPLICATION_JSON).content(CHECK))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableSeats").value(expected));
+        mockMvc.perform(get("/api/v1/availability").header("X-API-Key", client)
+                        .param("origin", "A").param("destination", "B").param("passengerCount", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableSeats").value(expected));
+    }
+
+    // seats left A -> B as seen by the untagged availability search
+    private void availableSeats(String client, int expected) throws Exception {
+        mockMvc.perform(post("/api/v1/availability/search").header("X-API-Key", client)
+                        .contentType(MediaType.APPLICATION_JSON).content(SEARCH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.destinations[0].destination").value("B"))
+                .andExpect(jsonPath("$.destinations[0].availableSeats").value(expected));
+    }
+}
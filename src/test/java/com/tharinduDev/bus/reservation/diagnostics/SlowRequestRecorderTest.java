@@ -0,0 +1,76 @@
+package com.tharinduDev.bus.reservation.diagnostics;
+
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowRequestRecorderTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private SlowRequestRecorder recorder;
+
+    @AfterEach
+    void stopRecorder() {
+        recorder.stop();
+    }
+
+    @Test
+    void slowRequest_DumpsRecordingWithPhaseEvents() throws Exception {
+        recorder = new SlowRequestRecorder(new DiagnosticsProperties(true, Duration.ofMillis(100), Duration.ZERO,
+                Duration.ofMinutes(1), Duration.ZERO, dumpDirectory, 20));
+        recorder.start();
+
+        ReservationPhaseEvent phase = ReservationPhaseEvent.start(ReservationPhaseEvent.SEAT_LOAD,
+                new TicketInquiry(3, Location.A, Location.C));
+        phase.finish(40);
+        recorder.requestCompleted("GET", "/api/v1/fast", 200, TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(List.of(), awaitDumps(Duration.ofMillis(300)));
+
+        recorder.requestCompleted("POST", "/api/v1/reservations/reserve", 201, TimeUnit.MILLISECONDS.toNanos(750));
+
+        List<Path> dumps = awaitDumps(Duration.ofSeconds(10));
+        assertEquals(1, dumps.size());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dumps.get(0));
+
+        RecordedEvent slowRequest = events.stream()
+                .filter(event -> event.getEventType().getName().equals(SlowRequestEvent.NAME))
+                .findFirst().orElseThrow();
+        assertEquals("/api/v1/reservations/reserve", slowRequest.getString("uri"));
+        assertEquals(Duration.ofMillis(750), slowRequest.getDuration("requestDuration"));
+
+        RecordedEvent seatLoad = events.stream()
+                .filter(event -> event.getEventType().getName().equals(ReservationPhaseEvent.NAME))
+                .findFirst().orElseThrow();
+        assertEquals("seat load", seatLoad.getString("phase"));
+        assertEquals("A", seatLoad.getString("origin"));
+        assertEquals(3, seatLoad.getInt("passengerCount"));
+        assertEquals(40, seatLoad.getInt("rows"));
+    }
+
+    private List<Path> awaitDumps(Duration timeout) throws Exception {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Path> dumps;
+        do {
+            Thread.sleep(50);
+            try (Stream<Path> files = Files.list(dumpDirectory)) {
+                dumps = files.filter(file -> file.toString().endsWith(".jfr")).toList();
+            }
+        } while (dumps.isEmpty() && System.nanoTime() < deadline);
+        return dumps;
+    }
+}
@@ -0,0 +1,96 @@
+package com.tharinduDev.bus.reservation.grpc;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.exception.NoSeatsAvailableException;
+import com.tharinduDev.bus.reservation.service.ReservationSequencer;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// gRPC bookings in sequencer mode must go through the sequencer, or its in-memory inventory sells their seats again
+@SpringBootTest(properties = {
+        "reservation.engine.mode=sequencer",
+        "grpc.server.enabled=true",
+        "grpc.server.port=0",
+        "grpc.server.in-process-name=grpc-sequencer-test",
+        "spring.datasource.url=jdbc:h2:mem:grpc-sequencer-test"
+})
+public class ReservationGrpcSequencerTest {
+
+    @Autowired
+    private ReservationSequencer reservationSequencer;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        channel = InProcessChannelBuilder.forName("grpc-sequencer-test").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+    }
+
+    @Test
+    void grpcBookings_AreSeenBySequencerInventory() throws Exception {
+        ReservationDetails single = ClientCalls.blockingUnaryCall(channel, ReservationGrpcMethods.RESERVE,
+                CallOptions.DEFAULT, new ReservationInquiry(20, Location.A, Location.B, new BigDecimal("1000.00")));
+
+        List<ReservationDetails> batch = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        StreamObserver<ReservationInquiry> requests = ClientCalls.asyncBidiStreamingCall(
+                channel.newCall(ReservationGrpcMethods.RESERVE_BATCH, CallOptions.DEFAULT), new StreamObserver<>() {
+                    @Override
+                    public void onNext(ReservationDetails value) {
+                        batch.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.countDown();
+                    }
+                });
+        requests.onNext(new ReservationInquiry(10, Location.A, Location.B, new BigDecimal("500.00")));
+        requests.onNext(new ReservationInquiry(9, Location.A, Location.B, new BigDecimal("450.00")));
+        requests.onCompleted();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, batch.size());
+
+        // one seat is left on A -> B, and the sequencer hands out that one, not a seat gRPC already sold
+        ReservationDetails last = reservationSequencer.reserve(
+                new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+
+        Set<String> bookedSeats = new HashSet<>(single.getSeatNumbers());
+        batch.forEach(details -> bookedSeats.addAll(details.getSeatNumbers()));
+        assertEquals(39, bookedSeats.size());
+        assertFalse(bookedSeats.contains(last.getSeatNumbers().get(0)));
+
+        assertThrows(NoSeatsAvailableException.class, () -> reservationSequencer.reserve(
+                new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00"))));
+    }
+}
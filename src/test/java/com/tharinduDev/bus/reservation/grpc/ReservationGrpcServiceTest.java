@@ -0,0 +1,198 @@
+package com.tharinduDev.bus.reservation.grpc;
+
+import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.exception.NoSeatsAvailableException;
+import com.tharinduDev.bus.reservation.exception.RouteNotFoundException;
+import com.tharinduDev.bus.reservation.service.ReservationEngine;
+import com.tharinduDev.bus.reservation.service.ReservationSequencer;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationGrpcServiceTest {
+
+    @Mock
+    private ReservationService reservationService;
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String serverName = InProcessServerBuilder.generateName();
+        // no sequencer: the engine books through reserveTickets
+        ReservationEngine reservationEngine = new ReservationEngine(reservationService,
+                new StaticListableBeanFactory().getBeanProvider(ReservationSequencer.class));
+        ReservationGrpcService grpcService = new ReservationGrpcService(reservationService, reservationEngine,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        server = InProcessServerBuilder.forName(serverName).directExecutor().addService(grpcService).build().start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    void checkAvailability_Success() {
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenReturn(new AvailabilityReport(40, new BigDecimal("100.00"), new BigDecimal("200.00"), List.of("1A", "1B")));
+
+        AvailabilityReport response = ClientCalls.blockingUnaryCall(channel, ReservationGrpcMethods.CHECK_AVAILABILITY,
+                CallOptions.DEFAULT, new TicketInquiry(2, Location.A, Location.C));
+
+        assertEquals(40, response.getAvailableSeats());
+        assertEquals(new BigDecimal("200.00"), response.getTotalPrice());
+        assertEquals(List.of("1A", "1B"), response.getAvailableSeatNumbers());
+    }
+
+    @Test
+    void checkAvailability_RouteNotFound_MapsToNotFound() {
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenThrow(new RouteNotFoundException("No route found from A to B"));
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                ClientCalls.blockingUnaryCall(channel, ReservationGrpcMethods.CHECK_AVAILABILITY,
+                        CallOptions.DEFAULT, new TicketInquiry(2, Location.A, Location.B)));
+
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+        assertEquals("No route found from A to B", exception.getStatus().getDescription());
+    }
+
+    @Test
+    void checkAvailability_ValidationFailure_MapsToInvalidArgument() {
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                ClientCalls.blockingUnaryCall(channel, ReservationGrpcMethods.CHECK_AVAILABILITY,
+                        CallOptions.DEFAULT, new TicketInquiry(55, Location.A, Location.D)));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+        assertTrue(exception.getStatus().getDescription().contains("Number of passengers cannot exceed 54"));
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void checkAvailability_UnexpectedFailure_MapsToInternalWithoutDetails() {
+        when(reservationService.checkAvailability(any(TicketInquiry.class)))
+                .thenThrow(new IllegalStateException("Connection to jdbc:h2:mem:busdb refused"));
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                ClientCalls.blockingUnaryCall(channel, ReservationGrpcMethods.CHECK_AVAILABILITY,
+                        CallOptions.DEFAULT, new TicketInquiry(2, Location.A, Location.B)));
+
+        assertEquals(Status.Code.INTERNAL, exception.getStatus().getCode());
+        assertEquals("An unexpected error occurred", exception.getStatus().getDescription());
+    }
+
+    @Test
+    void reserve_NoSeatsAvailable_MapsToResourceExhausted() {
+        when(reservationService.reserveTickets(any(ReservationInquiry.class)))
+                .thenThrow(new NoSeatsAvailableException("Not enough seats available. Requested: 2, Available: 1"));
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () ->
+                ClientCalls.blockingUnaryCall(channel, ReservationGrpcMethods.RESERVE, CallOptions.DEFAULT,
+                        new ReservationInquiry(2, Location.A, Location.B, new BigDecimal("100.00"))));
+
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, exception.getStatus().getCode());
+    }
+
+    @Test
+    void reserveBatch_AnswersEachReservationInOrder() throws Exception {
+        when(reservationService.reserveTickets(any(ReservationInquiry.class)))
+                .thenReturn(new ReservationDetails("RES-1", List.of("1A"), Location.A, Location.B, new BigDecimal("50.00")))
+                .thenReturn(new ReservationDetails("RES-2", List.of("2A"), Location.A, Location.B, new BigDecimal("50.00")));
+
+        List<ReservationDetails> responses = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        StreamObserver<ReservationInquiry> requests = ClientCalls.asyncBidiStreamingCall(
+                channel.newCall(ReservationGrpcMethods.RESERVE_BATCH, CallOptions.DEFAULT),
+                collectingObserver(responses, error, done));
+        requests.onNext(new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+        requests.onNext(new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+        requests.onCompleted();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNull(error.get());
+        assertEquals(List.of("RES-1", "RES-2"), responses.stream().map(ReservationDetails::getReservationNumber).toList());
+    }
+
+    @Test
+    void reserveBatch_StopsAtFirstFailure() throws Exception {
+        when(reservationService.reserveTickets(any(ReservationInquiry.class)))
+                .thenReturn(new ReservationDetails("RES-1", List.of("1A"), Location.A, Location.B, new BigDecimal("50.00")))
+                .thenThrow(new NoSeatsAvailableException("Not enough seats available. Requested: 1, Available: 0"));
+
+        List<ReservationDetails> responses = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        StreamObserver<ReservationInquiry> requests = ClientCalls.asyncBidiStreamingCall(
+                channel.newCall(ReservationGrpcMethods.RESERVE_BATCH, CallOptions.DEFAULT),
+                collectingObserver(responses, error, done));
+        requests.onNext(new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+        requests.onNext(new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+        requests.onNext(new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+        requests.onCompleted();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, responses.size());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(error.get()).getCode());
+        verify(reservationService, times(2)).reserveTickets(any(ReservationInquiry.class));
+    }
+
+    private StreamObserver<ReservationDetails> collectingObserver(List<ReservationDetails> responses,
+                                                                 AtomicReference<Throwable> error,
+                                                                 CountDownLatch done) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ReservationDetails value) {
+                responses.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.set(t);
+                done.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.enums.SeatClass;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusLayoutTest {
+
+    @Test
+    void grid_IndexesSeatsRowMajorWithBackRowAndPremiumRows() {
+        BusLayout layout = BusLayout.grid("midi-29", 8, "ABC", "ABCDE", 2);
+
+        assertEquals(29, layout.size());
+        assertEquals("1A", layout.seatNumber(0));
+        assertEquals("8C", layout.seatNumber(23));
+        assertEquals("9E", layout.seatNumber(28));
+        assertEquals(28, layout.indexOf("9E"));
+        assertEquals(-1, layout.indexOf("9F"));
+
+        assertEquals(9, layout.row(28));
+        assertEquals(4, layout.column(28));
+        assertEquals(SeatClass.PREMIUM, layout.seatClass(layout.indexOf("2C")));
+        assertEquals(SeatClass.STANDARD, layout.seatClass(layout.indexOf("3A")));
+    }
+
+    @Test
+    void busLayouts_BuildEachLayoutOnceAndShareIt() {
+        BusLayouts layouts = new BusLayouts(new FleetProperties("coach-45", Map.of(
+                "standard-40", new FleetProperties.Layout(10, "ABCD", "", 0),
+                "coach-45", new FleetProperties.Layout(10, "ABCD", "ABCDE", 2))));
+
+        assertEquals(45, layouts.active().size());
+        assertSame(layouts.active(), layouts.layout("coach-45"));
+        assertEquals(40, layouts.layout("standard-40").size());
+    }
+
+    @Test
+    void busLayouts_UnknownActiveLayout_FailsFast() {
+        FleetProperties properties = new FleetProperties("double-decker",
+                Map.of("standard-40", new FleetProperties.Layout(10, "ABCD", "", 0)));
+
+        assertThrows(IllegalStateException.class, () -> new BusLayouts(properties));
+    }
+}
@@ -0,0 +1,164 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.entity.Reservation;
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.repository.SeatOccupancy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapOccupancyStoreTest {
+
+    // 10 seats, so each departure ends in a partly padded word
+    private static final BusLayout LAYOUT = BusLayout.grid("test", 5, "AB", "", 0);
+
+    private static final int A_B = SegmentMask.of(Location.A, Location.B);
+    private static final int A_D = SegmentMask.of(Location.A, Location.D);
+    private static final int B_C = SegmentMask.of(Location.B, Location.C);
+    private static final int C_D = SegmentMask.of(Location.C, Location.D);
+
+    @Test
+    void allocate_TakesLowestFreeSeats_PerDeparture() {
+        OffHeapOccupancyStore store = OffHeapOccupancyStore.allocate(LAYOUT, 3);
+        int[] seats = new int[10];
+
+        assertTrue(store.allocate(1, A_B, 3, seats));
+        assertArrayEquals(new int[]{0, 1, 2}, Arrays.copyOf(seats, 3));
+        assertEquals(7, store.available(1, A_D));
+        // other segments of the same seats are still free
+        assertEquals(10, store.available(1, C_D));
+        assertEquals(10, store.available(0, A_B));
+        assertEquals(10, store.available(2, A_B));
+
+        assertTrue(store.allocate(1, B_C, 2, seats));
+        assertArrayEquals(new int[]{0, 1}, Arrays.copyOf(seats, 2));
+        assertEquals(A_B | B_C, store.occupiedSegments(1, 0));
+
+        // all-or-nothing: 8 seats are not free from A to D, nothing is taken
+        assertFalse(store.allocate(1, A_D, 8, seats));
+        assertEquals(7, store.available(1, A_D));
+
+        store.release(1, A_B, 3, new int[]{0, 1, 2});
+        assertEquals(10, store.available(1, A_B));
+        assertEquals(8, store.available(1, A_D));
+    }
+
+    @Test
+    void load_ReplacesOneDeparture() {
+        OffHeapOccupancyStore store = OffHeapOccupancyStore.allocate(LAYOUT, 2);
+        store.allocate(0, A_D, 10, new int[10]);
+        store.allocate(1, A_D, 10, new int[10]);
+
+        store.load(0, List.of(reservation(Location.B, Location.D, "1A", "5B", "99Z")));
+
+        assertEquals(8, store.available(0, C_D));
+        assertEquals(10, store.available(0, A_B));
+        assertEquals(0, store.available(1, A_B));
+    }
+
+    // InventoryReconciler compares the sequencer's store with a SeatInventory read from the database
+    @Test
+    void loadOccupancy_MatchesSeatInventoryChecksum() {
+        List<SeatOccupancy> occupancy = List.of(
+                occupancy("1A", Location.A, Location.C), occupancy("3B", Location.B, Location.D),
+                occupancy("99Z", Location.A, Location.D));
+        OffHeapOccupancyStore store = OffHeapOccupancyStore.allocate(LAYOUT, 2);
+        store.allocate(1, A_D, 10, new int[10]);
+
+        store.loadOccupancy(1, occupancy);
+
+        SeatInventory inventory = SeatInventory.fromOccupancy(LAYOUT, occupancy);
+        assertEquals(inventory.checksum(0, 10), store.checksum(1, 0, 10));
+        assertEquals(inventory.checksum(4, 6), store.checksum(1, 4, 6));
+        assertEquals(8, store.available(1, B_C));
+
+        store.addSegments(1, 9, C_D);
+        assertNotEquals(inventory.checksum(0, 10), store.checksum(1, 0, 10));
+        assertEquals(C_D, store.occupiedSegments(1, 9));
+    }
+
+    @Test
+    void mapped_ReopensOccupancyAfterRestart(@TempDir Path directory) {
+        Path file = directory.resolve("occupancy.bin");
+        OffHeapOccupancyStore store = OffHeapOccupancyStore.mapped(file, LAYOUT, 4);
+        store.allocate(3, A_B, 4, new int[4]);
+        store.force();
+
+        OffHeapOccupancyStore reopened = OffHeapOccupancyStore.mapped(file, LAYOUT, 4);
+        assertEquals(6, reopened.available(3, A_B));
+        assertEquals(10, reopened.available(2, A_B));
+
+        assertThrows(IllegalStateException.class, () -> OffHeapOccupancyStore.mapped(file, LAYOUT, 5));
+        assertThrows(IllegalStateException.class, () ->
+                OffHeapOccupancyStore.mapped(file, BusLayout.grid("other", 5, "AB", "", 0), 4));
+    }
+
+    @Test
+    void concurrentAllocations_NeverShareASeat() throws Exception {
+        OffHeapOccupancyStore store = OffHeapOccupancyStore.allocate(LAYOUT, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int mask = i % 2 == 0 ? A_B : A_D;
+                results.add(executor.submit(() -> {
+                    int[] seat = new int[1];
+                    return store.allocate(0, mask, 1, seat) ? seat : null;
+                }));
+            }
+            Set<Integer> taken = new HashSet<>();
+            for (Future<int[]> result : results) {
+                int[] seat = result.get();
+                if (seat != null) {
+                    assertTrue(taken.add(seat[0]), "seat " + seat[0] + " allocated twice");
+                }
+            }
+            // every A -> B request competes with every A -> D request
+            assertEquals(10, taken.size());
+            assertEquals(0, store.available(0, A_B));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static SeatOccupancy occupancy(String seatNumber, Location from, Location to) {
+        return new SeatOccupancy() {
+            @Override
+            public String getSeatNumber() {
+                return seatNumber;
+            }
+
+            @Override
+            public Location getFromLocation() {
+                return from;
+            }
+
+            @Override
+            public Location getToLocation() {
+                return to;
+            }
+        };
+    }
+
+    private static Reservation reservation(Location from, Location to, String... seatNumbers) {
+        Reservation reservation = new Reservation();
+        reservation.setFromLocation(from);
+        reservation.setToLocation(to);
+        for (String seatNumber : seatNumbers) {
+            reservation.getSeats().add(new Seat(null, seatNumber));
+        }
+        return reservation;
+    }
+}
@@ -0,0 +1,136 @@
+package com.tharinduDev.bus.reservation.inventory;
+
+import com.tharinduDev.bus.reservation.entity.Reservation;
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.enums.Location;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentCapacityTest {
+
+    private static final BusLayout LAYOUT = BusLayout.grid("test", 4, "A", "", 0);
+    private static final String OPERATOR = "north-line";
+
+    private static final int A_B = SegmentMask.of(Location.A, Location.B);
+    private static final int A_D = SegmentMask.of(Location.A, Location.D);
+    private static final int B_C = SegmentMask.of(Location.B, Location.C);
+    private static final int D_A = SegmentMask.of(Location.D, Location.A);
+
+    @Test
+    void unloadedCounters_NeverReject() {
+        SegmentCapacity capacity = new SegmentCapacity();
+
+        assertTrue(capacity.canFit(OPERATOR, A_D, 40));
+        assertFalse(capacity.isSoldOut(OPERATOR, A_D));
+    }
+
+    @Test
+    void bookingsAndReleases_TrackTheFullestSegment() {
+        SegmentCapacity capacity = new SegmentCapacity();
+        capacity.reconcile(OPERATOR, () -> SeatInventory.load(LAYOUT, List.of()));
+
+        capacity.reserved(OPERATOR, A_B, 3);
+        capacity.reserved(OPERATOR, B_C, 1);
+
+        assertEquals(1, capacity.available(OPERATOR, A_D));
+        assertTrue(capacity.canFit(OPERATOR, A_D, 1));
+        assertFalse(capacity.canFit(OPERATOR, A_D, 2));
+        // the return direction is a different set of segments
+        assertTrue(capacity.canFit(OPERATOR, D_A, 4));
+
+        capacity.reserved(OPERATOR, A_B, 1);
+        assertTrue(capacity.isSoldOut(OPERATOR, A_D));
+
+        capacity.released(OPERATOR, A_B, 2);
+        assertEquals(2, capacity.available(OPERATOR, A_B));
+        assertEquals(3, capacity.available(OPERATOR, B_C));
+    }
+
+    @Test
+    void operators_CountedOnTheirOwnBus() {
+        SegmentCapacity capacity = new SegmentCapacity();
+        capacity.reconcile(OPERATOR, () -> SeatInventory.load(LAYOUT, List.of()));
+        capacity.reconcile("south-line", () -> SeatInventory.load(LAYOUT, List.of()));
+
+        capacity.reserved(OPERATOR, A_B, 4);
+
+        assertTrue(capacity.isSoldOut(OPERATOR, A_D));
+        assertFalse(capacity.isSoldOut("south-line", A_D));
+        assertEquals(4, capacity.available("south-line", A_B));
+        // an operator that was never reconciled is unknown, not sold out
+        assertTrue(capacity.canFit("east-line", A_D, 40));
+    }
+
+    @Test
+    void changesInsideTransaction_AppliedOnlyOnCommit() {
+        SegmentCapacity capacity = new SegmentCapacity();
+        capacity.reconcile(OPERATOR, () -> SeatInventory.load(LAYOUT, List.of()));
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> capacity.reserved(OPERATOR, A_B, 2));
+        assertEquals(4, capacity.available(OPERATOR, A_B));
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            capacity.reserved(OPERATOR, A_B, 2);
+            assertEquals(4, capacity.available(OPERATOR, A_B));
+        });
+        assertEquals(2, capacity.available(OPERATOR, A_B));
+    }
+
+    @Test
+    void reconcile_SkippedWhileBookingInFlight_ThenCorrectsDrift() {
+        SegmentCapacity capacity = new SegmentCapacity();
+        capacity.reconcile(OPERATOR, () -> SeatInventory.load(LAYOUT, List.of()));
+
+        // a booking committing while the snapshot is read may or may not be in it
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            capacity.reserved(OPERATOR, A_B, 1);
+            assertEquals(-1, capacity.reconcile(OPERATOR, () -> SeatInventory.load(LAYOUT, List.of())));
+        });
+        assertEquals(3, capacity.available(OPERATOR, A_B));
+
+        List<Seat> seats = seats(4);
+        Reservation counted = reservation(Location.A, Location.B, seats.get(0));
+        assertEquals(0, capacity.reconcile(OPERATOR, () -> SeatInventory.load(LAYOUT, List.of(counted))));
+
+        // a booking the counters never heard about is found on all three forward segments
+        Reservation missed = reservation(Location.A, Location.D, seats.get(1));
+        assertEquals(3, capacity.reconcile(OPERATOR, () -> SeatInventory.load(LAYOUT, List.of(counted, missed))));
+        assertEquals(2, capacity.available(OPERATOR, A_B));
+        assertEquals(2, capacity.available(OPERATOR, A_D));
+        assertEquals(4, capacity.available(OPERATOR, D_A));
+    }
+
+    private static void inTransaction(int status, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), status);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Reservation reservation(Location from, Location to, Seat... seats) {
+        Reservation reservation = new Reservation();
+        reservation.setFromLocation(from);
+        reservation.setToLocation(to);
+        reservation.getSeats().addAll(List.of(seats));
+        return reservation;
+    }
+
+    private static List<Seat> seats(int count) {
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            seats.add(new Seat((long) i, i + "A"));
+        }
+        return seats;
+    }
+}
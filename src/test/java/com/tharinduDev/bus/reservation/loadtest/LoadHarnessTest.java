@@ -0,0 +1,77 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Drives an embedded instance with a generated workload, or with a recorded request log when -Dloadtest.replay
+// is set, and writes the report to target/load-reports. Run with: mvn -Ploadtest test
+// Options: -Dloadtest.name -Dloadtest.rate -Dloadtest.duration -Dloadtest.readRatio -Dloadtest.seed
+//          -Dloadtest.replay=<application log> -Dloadtest.replayScale
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "reservation.admission.enabled=false",
+        "reservation.tenancy.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:loadtest",
+        "logging.level.com.tharinduDev=WARN"
+})
+public class LoadHarnessTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void runWorkload() throws Exception {
+        String replay = System.getProperty("loadtest.replay");
+        List<LoadRequest> requests;
+        String name;
+        if (replay != null) {
+            double scale = Double.parseDouble(System.getProperty("loadtest.replayScale", "1.0"));
+            requests = RequestLogReplay.load(Path.of(replay), scale);
+            name = System.getProperty("loadtest.name", "replay");
+        } else {
+            name = System.getProperty("loadtest.name", "generated");
+            WorkloadProfile profile = WorkloadProfile.defaults(name,
+                    Duration.parse(System.getProperty("loadtest.duration", "PT20S")),
+                    Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+                    Double.parseDouble(System.getProperty("loadtest.readRatio", "0.8")));
+            requests = new WorkloadGenerator(profile, Long.getLong("loadtest.seed", 42L)).generate();
+        }
+
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (Route route : routeRepository.findAll()) {
+            prices.put(route.getFromLocation() + "-" + route.getToLocation(), route.getPrice());
+        }
+        LoadRunner runner = new LoadRunner(URI.create("http://localhost:" + port), objectMapper,
+                request -> prices.get(request.origin() + "-" + request.destination())
+                        .multiply(BigDecimal.valueOf(request.passengerCount())));
+
+        LoadReport report = runner.run(name, requests);
+        report.writeTo(Path.of("target", "load-reports"));
+        System.out.print(report.summary());
+
+        // oversold seats are reported rather than asserted so successive releases can be compared on the same workload
+        assertEquals(0, report.count("transport-error"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.inventory.SegmentMask;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Outcome of one LoadRunner run. Latencies are recorded in microseconds from the scheduled send time,
+// so a stalled server shows up in the tail instead of silently slowing the load down.
+public class LoadReport {
+
+    private final String name;
+    private final long elapsedNanos;
+    private final Map<LoadRequest.Kind, Histogram> latencies;
+    private final Map<String, Long> outcomes;
+    private final int bookings;
+    private final int oversoldSeats;
+
+    public LoadReport(String name, long elapsedNanos, Map<LoadRequest.Kind, Histogram> latencies,
+                      Map<String, Long> outcomes, List<ReservationDetails> bookings) {
+        this.name = name;
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = new EnumMap<>(latencies);
+        this.outcomes = outcomes;
+        this.bookings = bookings.size();
+        this.oversoldSeats = countOversoldSeats(bookings);
+    }
+
+    public long count(String outcome) {
+        return outcomes.getOrDefault(outcome, 0L);
+    }
+
+    public int getOversoldSeats() {
+        return oversoldSeats;
+    }
+
+    public long getTotalRequests() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public double getThroughput() {
+        return getTotalRequests() / (elapsedNanos / 1e9);
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("workload %s: %d requests in %.1f s, %.1f req/s%n",
+                name, getTotalRequests(), elapsedNanos / 1e9, getThroughput()));
+        latencies.forEach((kind, histogram) -> summary.append(String.format(
+                "  %-18s count=%d p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%n",
+                kind, histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0)));
+        summary.append(String.format("  outcomes %s%n", outcomes));
+        summary.append(String.format("  bookings=%d oversoldSeats=%d%n", bookings, oversoldSeats));
+        return summary.toString();
+    }
+
+    // <name>.txt holds the summary, <name>-<kind>.hgrm the full percentile distribution for HdrHistogram plotters
+    public void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve(name + ".txt"), summary());
+        for (Map.Entry<LoadRequest.Kind, Histogram> entry : latencies.entrySet()) {
+            Path file = directory.resolve(name + "-" + entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    // a seat is oversold when two confirmed bookings hold it for journeys that share a road segment
+    static int countOversoldSeats(List<ReservationDetails> bookings) {
+        Map<String, List<Integer>> journeysBySeat = new HashMap<>();
+        Set<String> oversold = new HashSet<>();
+        for (ReservationDetails booking : bookings) {
+            int mask = SegmentMask.of(booking.getDepartureLocation(), booking.getArrivalLocation());
+            for (String seatNumber : booking.getSeatNumbers()) {
+                List<Integer> journeys = journeysBySeat.computeIfAbsent(seatNumber, seat -> new ArrayList<>());
+                if (journeys.stream().anyMatch(other -> (other & mask) != 0)) {
+                    oversold.add(seatNumber);
+                }
+                journeys.add(mask);
+            }
+        }
+        return oversold.size();
+    }
+}
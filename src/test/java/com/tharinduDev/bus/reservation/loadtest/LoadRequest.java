@@ -0,0 +1,11 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+
+// One request of a workload, sent offsetNanos after the start of the run
+public record LoadRequest(long offsetNanos, Kind kind, Location origin, Location destination, int passengerCount) {
+
+    public enum Kind {
+        CHECK_AVAILABILITY, RESERVE
+    }
+}
@@ -0,0 +1,116 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Open-loop driver: every request is sent at its scheduled offset whether or not earlier ones have answered,
+// so the offered load matches the workload even when the server falls behind.
+public class LoadRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final Function<LoadRequest, BigDecimal> priceConfirmation;
+
+    public LoadRunner(URI baseUri, ObjectMapper objectMapper, Function<LoadRequest, BigDecimal> priceConfirmation) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.priceConfirmation = priceConfirmation;
+    }
+
+    public LoadReport run(String name, List<LoadRequest> requests) throws Exception {
+        Map<LoadRequest.Kind, Histogram> latencies = new EnumMap<>(LoadRequest.Kind.class);
+        for (LoadRequest.Kind kind : LoadRequest.Kind.values()) {
+            latencies.put(kind, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+        Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<ReservationDetails> bookings = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>(requests.size());
+
+        long start = System.nanoTime();
+        for (LoadRequest request : requests) {
+            long scheduled = start + request.offsetNanos();
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.add(httpClient.sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofString())
+                    .handle((response, failure) -> {
+                        latencies.get(request.kind()).recordValue(
+                                Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled), HIGHEST_TRACKABLE_MICROS));
+                        String outcome = failure != null ? "transport-error" : outcome(response.statusCode());
+                        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                        if (failure == null && request.kind() == LoadRequest.Kind.RESERVE && response.statusCode() == 201) {
+                            bookings.add(readBooking(response.body()));
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return new LoadReport(name, elapsed, latencies, counts, new ArrayList<>(bookings));
+    }
+
+    private HttpRequest toHttpRequest(LoadRequest request) throws Exception {
+        String path;
+        Object body;
+        if (request.kind() == LoadRequest.Kind.RESERVE) {
+            path = "/api/v1/reservations/reserve";
+            body = new ReservationInquiry(request.passengerCount(), request.origin(), request.destination(),
+                    priceConfirmation.apply(request));
+        } else {
+            path = "/api/v1/reservations/check-availability";
+            body = new TicketInquiry(request.passengerCount(), request.origin(), request.destination());
+        }
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private ReservationDetails readBooking(String body) {
+        try {
+            return objectMapper.readValue(body, ReservationDetails.class);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Unreadable reservation response: " + body, ex);
+        }
+    }
+
+    private static String outcome(int status) {
+        if (status < 300) {
+            return "ok";
+        }
+        return switch (status) {
+            case 409 -> "sold-out";
+            case 429 -> "rejected";
+            default -> status >= 500 ? "server-error-" + status : "client-error-" + status;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Rebuilds a request schedule from the "Received ... request" lines ReservationController writes with the
+// console pattern in application.properties. A scale of 2.0 replays the recorded traffic twice as fast.
+public final class RequestLogReplay {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final Pattern AVAILABILITY_LINE = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}) .*Received (?:compact )?availability check request: (\\d+) passengers from (\\w+) to (\\w+)");
+    private static final Pattern RESERVATION_LINE = Pattern.compile(
+            "^(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}) .*Received reservation request: (\\d+) passengers from (\\w+) to (\\w+)");
+
+    private RequestLogReplay() {
+    }
+
+    public static List<LoadRequest> load(Path logFile, double scale) throws IOException {
+        try (var lines = Files.lines(logFile)) {
+            return parse(lines.toList(), scale);
+        }
+    }
+
+    public static List<LoadRequest> parse(List<String> lines, double scale) {
+        List<LoadRequest> requests = new ArrayList<>();
+        LocalDateTime first = null;
+        for (String line : lines) {
+            LoadRequest.Kind kind;
+            Matcher matcher = AVAILABILITY_LINE.matcher(line);
+            if (matcher.find()) {
+                kind = LoadRequest.Kind.CHECK_AVAILABILITY;
+            } else {
+                matcher = RESERVATION_LINE.matcher(line);
+                if (!matcher.find()) {
+                    continue;
+                }
+                kind = LoadRequest.Kind.RESERVE;
+            }
+            LocalDateTime timestamp = LocalDateTime.parse(matcher.group(1), TIMESTAMP);
+            if (first == null) {
+                first = timestamp;
+            }
+            long offsetNanos = (long) (ChronoUnit.NANOS.between(first, timestamp) / scale);
+            requests.add(new LoadRequest(offsetNanos, kind, Location.valueOf(matcher.group(3)),
+                    Location.valueOf(matcher.group(4)), Integer.parseInt(matcher.group(2))));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,70 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Turns a WorkloadProfile into a concrete, repeatable request schedule (same seed, same requests)
+public class WorkloadGenerator {
+
+    private final WorkloadProfile profile;
+    private final Random random;
+    private final int totalRouteWeight;
+    private final int totalPassengerWeight;
+
+    public WorkloadGenerator(WorkloadProfile profile, long seed) {
+        this.profile = profile;
+        this.random = new Random(seed);
+        this.totalRouteWeight = profile.routeMix().stream().mapToInt(WorkloadProfile.RouteWeight::weight).sum();
+        int passengerWeights = 0;
+        for (int weight : profile.passengerCountWeights()) {
+            passengerWeights += weight;
+        }
+        this.totalPassengerWeight = passengerWeights;
+    }
+
+    public List<LoadRequest> generate() {
+        List<LoadRequest> requests = new ArrayList<>();
+        long durationNanos = profile.duration().toNanos();
+        double offsetNanos = 0;
+        while (true) {
+            double rate = profile.ratePerSecond() * (inBurst((long) offsetNanos) ? profile.burstMultiplier() : 1.0);
+            offsetNanos += -Math.log(1.0 - random.nextDouble()) / rate * 1e9;
+            if (offsetNanos >= durationNanos) {
+                return requests;
+            }
+            WorkloadProfile.RouteWeight route = nextRoute();
+            LoadRequest.Kind kind = random.nextDouble() < profile.readRatio()
+                    ? LoadRequest.Kind.CHECK_AVAILABILITY : LoadRequest.Kind.RESERVE;
+            requests.add(new LoadRequest((long) offsetNanos, kind, route.origin(), route.destination(), nextPassengerCount()));
+        }
+    }
+
+    private boolean inBurst(long offsetNanos) {
+        long interval = profile.burstInterval().toNanos();
+        return interval > 0 && offsetNanos % interval < profile.burstLength().toNanos();
+    }
+
+    private WorkloadProfile.RouteWeight nextRoute() {
+        int pick = random.nextInt(totalRouteWeight);
+        for (WorkloadProfile.RouteWeight route : profile.routeMix()) {
+            pick -= route.weight();
+            if (pick < 0) {
+                return route;
+            }
+        }
+        throw new IllegalStateException("Route mix weights changed during generation");
+    }
+
+    private int nextPassengerCount() {
+        int pick = random.nextInt(totalPassengerWeight);
+        int[] weights = profile.passengerCountWeights();
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException("Passenger count weights changed during generation");
+    }
+}
@@ -0,0 +1,65 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.enums.Location;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadGeneratorTest {
+
+    @Test
+    void generate_SameSeed_ProducesSameSchedule() {
+        WorkloadProfile profile = WorkloadProfile.defaults("test", Duration.ofSeconds(30), 100, 0.8);
+
+        List<LoadRequest> first = new WorkloadGenerator(profile, 7).generate();
+        List<LoadRequest> second = new WorkloadGenerator(profile, 7).generate();
+
+        assertEquals(first, second);
+        long reads = first.stream().filter(r -> r.kind() == LoadRequest.Kind.CHECK_AVAILABILITY).count();
+        assertEquals(0.8, (double) reads / first.size(), 0.05);
+        assertTrue(first.stream().allMatch(r -> r.origin() != r.destination()
+                && r.passengerCount() >= 1 && r.passengerCount() <= 5));
+    }
+
+    @Test
+    void generate_SaleOpeningBurst_RaisesArrivalRate() {
+        WorkloadProfile profile = WorkloadProfile.defaults("test", Duration.ofSeconds(30), 100, 0.8);
+
+        List<LoadRequest> requests = new WorkloadGenerator(profile, 7).generate();
+
+        // the first second of every 10 s window runs at 5x the base rate
+        long inBursts = requests.stream().filter(r -> r.offsetNanos() % 10_000_000_000L < 1_000_000_000L).count();
+        assertEquals(3 * 500, inBursts, 150);
+        assertEquals(3 * 500 + 27 * 100, requests.size(), 300);
+    }
+
+    @Test
+    void parse_ControllerLogLines_ReplaysAtScaledOffsets() {
+        List<String> log = List.of(
+                "2026-10-19 10:00:00.000 [http-nio-8080-exec-1] INFO  c.t.b.r.c.ReservationController - Received availability check request: 2 passengers from A to C",
+                "2026-10-19 10:00:00.500 [http-nio-8080-exec-2] INFO  c.t.b.r.s.ReservationService - Checking availability for 2 passengers from A to C",
+                "2026-10-19 10:00:01.000 [http-nio-8080-exec-3] INFO  c.t.b.r.c.ReservationController - Received reservation request: 3 passengers from D to B with price Rs. 450.00");
+
+        List<LoadRequest> requests = RequestLogReplay.parse(log, 2.0);
+
+        assertEquals(List.of(
+                new LoadRequest(0, LoadRequest.Kind.CHECK_AVAILABILITY, Location.A, Location.C, 2),
+                new LoadRequest(500_000_000L, LoadRequest.Kind.RESERVE, Location.D, Location.B, 3)), requests);
+    }
+
+    @Test
+    void countOversoldSeats_OnlyOverlappingJourneysConflict() {
+        ReservationDetails ab = new ReservationDetails("R1", List.of("1A"), Location.A, Location.B, BigDecimal.TEN);
+        ReservationDetails bc = new ReservationDetails("R2", List.of("1A"), Location.B, Location.C, BigDecimal.TEN);
+        ReservationDetails ac = new ReservationDetails("R3", List.of("1A", "1B"), Location.A, Location.C, BigDecimal.TEN);
+
+        assertEquals(0, LoadReport.countOversoldSeats(List.of(ab, bc)));
+        assertEquals(1, LoadReport.countOversoldSeats(List.of(ab, bc, ac)));
+    }
+}
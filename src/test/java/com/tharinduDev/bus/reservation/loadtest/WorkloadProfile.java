@@ -0,0 +1,39 @@
+package com.tharinduDev.bus.reservation.loadtest;
+
+import com.tharinduDev.bus.reservation.enums.Location;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Shape of a generated workload. Arrivals are Poisson at ratePerSecond; during a sale-opening burst
+// (burstLength every burstInterval) the rate is multiplied by burstMultiplier.
+public record WorkloadProfile(
+        String name,
+        Duration duration,
+        double ratePerSecond,
+        double readRatio,
+        List<RouteWeight> routeMix,
+        int[] passengerCountWeights,
+        Duration burstInterval,
+        Duration burstLength,
+        double burstMultiplier) {
+
+    public record RouteWeight(Location origin, Location destination, int weight) { }
+
+    // every route equally likely, mostly small groups, one sale opening burst per 10 seconds
+    public static WorkloadProfile defaults(String name, Duration duration, double ratePerSecond, double readRatio) {
+        List<RouteWeight> routeMix = new ArrayList<>();
+        for (Location origin : Location.values()) {
+            for (Location destination : Location.values()) {
+                if (origin != destination) {
+                    routeMix.add(new RouteWeight(origin, destination, 1));
+                }
+            }
+        }
+        // weights for 1, 2, 3, 4 and 5 passengers
+        int[] passengerCountWeights = {50, 30, 10, 6, 4};
+        return new WorkloadProfile(name, duration, ratePerSecond, readRatio, routeMix, passengerCountWeights,
+                Duration.ofSeconds(10), Duration.ofSeconds(1), 5.0);
+    }
+}
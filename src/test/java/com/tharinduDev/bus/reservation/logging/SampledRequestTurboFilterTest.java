@@ -0,0 +1,44 @@
+package com.tharinduDev.bus.reservation.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SampledRequestTurboFilterTest {
+
+    private final SampledRequestTurboFilter filter = new SampledRequestTurboFilter();
+    private final Logger logger = new LoggerContext().getLogger("com.tharinduDev.bus.reservation.service.ReservationService");
+
+    @AfterEach
+    void endRequest() {
+        RequestLogSampler.end();
+    }
+
+    @Test
+    void sampledOutRequest_DropsInfoButKeepsWarnAndError() {
+        RequestLogSampler.begin(0.0);
+
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.INFO, "Checking availability", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.DEBUG, "Reservation number", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.WARN, "Price confirmation mismatch", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.ERROR, "Insufficient seats", null, null));
+    }
+
+    @Test
+    void fullSampleRateAndOutsideRequests_KeepEverything() {
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "startup", null, null));
+
+        RequestLogSampler.begin(1.0);
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Checking availability", null, null));
+
+        RequestLogSampler.end();
+        RequestLogSampler.begin(0.0);
+        RequestLogSampler.end();
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "next request on this thread", null, null));
+    }
+}
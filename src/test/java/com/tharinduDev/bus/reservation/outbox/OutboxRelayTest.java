@@ -0,0 +1,84 @@
+package com.tharinduDev.bus.reservation.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.entity.OutboxEvent;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.repository.OutboxEventRepository;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-test",
+        "reservation.outbox.sink=memory",
+        "reservation.outbox.poll-interval=50ms"
+})
+public class OutboxRelayTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void reserveTickets_EventIsWrittenWithBookingAndRelayedToSink() throws Exception {
+        ReservationDetails reservation = reservationService.reserveTickets(
+                new ReservationInquiry(2, Location.A, Location.B, new BigDecimal("100.00")));
+
+        OutboxEvent event = sink.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(event);
+        assertEquals(ReservationOutbox.RESERVATION_CREATED, event.getEventType());
+        assertEquals(reservation.getReservationNumber(), event.getAggregateId());
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        assertEquals(reservation.getSeatNumbers().size(), payload.get("seatNumbers").size());
+
+        // marked published after delivery, so it is not relayed again
+        awaitPublished(event.getId());
+        outboxRelay.relay();
+        assertNull(sink.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void inMemorySink_DropsRedeliveredEvents() throws Exception {
+        OutboxEvent event = new OutboxEvent(99L, "event-1", "RES-1", 1, ReservationOutbox.RESERVATION_CREATED,
+                "{}", null, null);
+
+        InMemoryOutboxSink deduplicatingSink = new InMemoryOutboxSink();
+        deduplicatingSink.publish(List.of(event));
+        deduplicatingSink.publish(List.of(event));
+
+        assertSame(event, deduplicatingSink.poll(1, TimeUnit.SECONDS));
+        assertNull(deduplicatingSink.poll(50, TimeUnit.MILLISECONDS));
+    }
+
+    private void awaitPublished(Long id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (outboxEventRepository.findById(id).orElseThrow().getPublishedAt() != null) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("Outbox event " + id + " was not marked published");
+    }
+}
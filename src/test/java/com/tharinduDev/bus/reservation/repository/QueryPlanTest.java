@@ -0,0 +1,122 @@
+package com.tharinduDev.bus.reservation.repository;
+
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.enums.Location;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Fails when a hot repository query stops using an index and falls back to a full table scan. Each case calls
+// the repository method and EXPLAINs the statements Hibernate generated for it, parameters left unbound;
+// add new request-path queries here.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan-test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.tharinduDev.bus.reservation.repository.QueryPlanTest$CapturedStatements"
+})
+public class QueryPlanTest {
+
+    private static final String RESERVATION_NUMBER = "RES-PLAN-1";
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // the seats collection is only loaded for a reservation that exists
+    @BeforeEach
+    void insertReservation() {
+        jdbcTemplate.update("INSERT INTO reservations (reservation_number, from_location, to_location, passenger_count, "
+                + "total_price) VALUES (?, 'A', 'B', 1, 50.00)", RESERVATION_NUMBER);
+    }
+
+    @AfterEach
+    void deleteReservation() {
+        jdbcTemplate.update("DELETE FROM reservations WHERE reservation_number = ?", RESERVATION_NUMBER);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> hotQuery_UsesAnIndex() {
+        return Stream.of(
+                DynamicTest.dynamicTest("ReservationRepository.findOperatorIdByReservationNumber", () -> assertIndexed(() ->
+                        reservationRepository.findOperatorIdByReservationNumber(RESERVATION_NUMBER))),
+                DynamicTest.dynamicTest("ReservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn", () ->
+                        assertIndexed(() -> reservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn(
+                                Route.DEFAULT_OPERATOR, List.of(Location.A, Location.B),
+                                List.of(Location.B, Location.C, Location.D)))),
+                // Reservation.seats, loaded per reservation during the overlap check and on cancellation
+                DynamicTest.dynamicTest("ReservationRepository.findByReservationNumber with seats", () -> assertIndexed(() ->
+                        transactionTemplate.executeWithoutResult(status -> reservationRepository
+                                .findByReservationNumber(RESERVATION_NUMBER).orElseThrow().getSeats().size()))),
+                // keyset scan walked by InventoryReconciler; must seek on the primary key, not scan from the start
+                DynamicTest.dynamicTest("ReservationRepository.findSeatCountsAfter", () -> assertIndexed(() ->
+                        reservationRepository.findSeatCountsAfter(0L, PageRequest.of(0, 500)))),
+                DynamicTest.dynamicTest("SeatRepository.findByOperatorIdAndSeatNumberIn", () -> assertIndexed(() ->
+                        seatRepository.findByOperatorIdAndSeatNumberIn(Route.DEFAULT_OPERATOR, List.of("1A", "1B", "1C")))),
+                DynamicTest.dynamicTest("SeatRepository.findOccupancyByOperatorIdAndSeatNumberIn", () -> assertIndexed(() ->
+                        seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(Route.DEFAULT_OPERATOR,
+                                List.of("1A", "1B", "1C")))),
+                DynamicTest.dynamicTest("OutboxEventRepository.findByPublishedAtIsNullOrderByIdAsc", () -> assertIndexed(() ->
+                        outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, 100)))));
+    }
+
+    private void assertIndexed(Runnable repositoryCall) {
+        List<String> statements = CapturedStatements.during(repositoryCall);
+
+        assertFalse(statements.isEmpty(), "no statement was generated");
+        for (String statement : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + statement, String.class);
+            assertFalse(plan.contains("tableScan"), () -> "full table scan in plan:\n" + plan);
+        }
+    }
+
+    // Hibernate hands every statement it prepares to the inspector; only those prepared by the calling thread
+    // are kept, so background pollers (outbox relay, capacity reconciler) do not leak into a case.
+    public static class CapturedStatements implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+        static List<String> during(Runnable call) {
+            List<String> statements = new ArrayList<>();
+            CAPTURED.set(statements);
+            try {
+                call.run();
+            } finally {
+                CAPTURED.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = CAPTURED.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "reservation.engine.mode=sequencer",
+        "spring.datasource.url=jdbc:h2:mem:inventory-reconciler-test",
+        // driven by the test, not the scheduler
+        "reservation.reconciliation.interval=1h",
+        "reservation.reconciliation.chunk-size=8",
+        "reservation.reconciliation.chunks-per-run=5",
+        "reservation.reconciliation.reservations-per-run=2"
+})
+public class InventoryReconcilerTest {
+
+    @Autowired
+    private InventoryReconciler inventoryReconciler;
+
+    @Autowired
+    private ReservationSequencer reservationSequencer;
+
+    @Autowired
+    private SegmentCapacityReconciler segmentCapacityReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void resetReservations() {
+        jdbcTemplate.update("UPDATE seats SET reservation_id = NULL");
+        jdbcTemplate.update("DELETE FROM reservations");
+        reservationSequencer.reloadInventory().join();
+        segmentCapacityReconciler.reconcile();
+        // settle the state of earlier tests
+        inventoryReconciler.reconcile();
+        inventoryReconciler.reconcile();
+    }
+
+    @Test
+    void bookingMissingFromSequencer_RepairedOnceConfirmed() {
+        assertEquals(List.of("1A"), book(Location.A, Location.B));
+        // written behind the sequencer's back
+        insertReservation("RES-EXTERNAL", 1, "1B");
+        double repairedBefore = seatBlocks("repaired");
+
+        inventoryReconciler.reconcile();
+        assertEquals(repairedBefore, seatBlocks("repaired"));
+
+        inventoryReconciler.reconcile();
+        assertEquals(repairedBefore + 1, seatBlocks("repaired"));
+        assertEquals(List.of("1C"), book(Location.A, Location.B));
+    }
+
+    @Test
+    void bookingMissingFromDatabase_FlaggedButSeatNotFreed() {
+        assertEquals(List.of("1A"), book(Location.A, Location.B));
+        jdbcTemplate.update("UPDATE seats SET reservation_id = NULL WHERE seat_number = '1A'");
+        double flaggedBefore = seatBlocks("flagged");
+
+        inventoryReconciler.reconcile();
+        inventoryReconciler.reconcile();
+        inventoryReconciler.reconcile();
+
+        assertEquals(flaggedBefore + 1, seatBlocks("flagged"));
+        assertEquals(List.of("1B"), book(Location.A, Location.B));
+    }
+
+    @Test
+    void reservationsWithMissingSeats_FlaggedAcrossIncrementalBatches() {
+        insertReservation("RES-OK-1", 1, "2A");
+        insertReservation("RES-SHORT", 2, "2B");
+        insertReservation("RES-OK-2", 1, "2C");
+        insertReservation("RES-EMPTY", 1);
+
+        // two reservations per run: the scan needs a few runs to see all four
+        for (int run = 0; run < 3; run++) {
+            inventoryReconciler.reconcile();
+        }
+        assertEquals(2, inventoryReconciler.inconsistentReservations());
+    }
+
+    private List<String> book(Location from, Location to) {
+        return reservationSequencer.reserve(new ReservationInquiry(1, from, to, new BigDecimal("50.00"))).getSeatNumbers();
+    }
+
+    private void insertReservation(String reservationNumber, int passengerCount, String... seatNumbers) {
+        jdbcTemplate.update("INSERT INTO reservations (passenger_count, total_price, reservation_number, from_location, "
+                + "to_location) VALUES (?, 50.00, ?, 'A', 'B')", passengerCount, reservationNumber);
+        for (String seatNumber : seatNumbers) {
+            jdbcTemplate.update("UPDATE seats SET reservation_id = (SELECT id FROM reservations WHERE reservation_number = ?) "
+                    + "WHERE seat_number = ?", reservationNumber, seatNumber);
+        }
+    }
+
+    private double seatBlocks(String result) {
+        return meterRegistry.get("reservation.reconciliation.seat-blocks").tag("result", result).counter().count();
+    }
+}
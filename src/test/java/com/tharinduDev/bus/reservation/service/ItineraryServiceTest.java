@@ -0,0 +1,191 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.dto.ItineraryOption;
+import com.tharinduDev.bus.reservation.dto.ItinerarySearchReport;
+import com.tharinduDev.bus.reservation.dto.TicketInquiry;
+import com.tharinduDev.bus.reservation.entity.Reservation;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.exception.RouteNotFoundException;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.FleetProperties;
+import com.tharinduDev.bus.reservation.inventory.SeatInventory;
+import com.tharinduDev.bus.reservation.inventory.SegmentCapacity;
+import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import com.tharinduDev.bus.reservation.repository.SeatOccupancy;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ItineraryServiceTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    // one column of ten seats, 1A .. 10A like testSeats
+    @Spy
+    private BusLayouts busLayouts = new BusLayouts(new FleetProperties("test",
+            Map.of("test", new FleetProperties.Layout(10, "A", "", 0))));
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    // not reconciled, so it never rules out a leg unless a test loads it
+    @Spy
+    private SegmentCapacity segmentCapacity = new SegmentCapacity();
+
+    private List<Route> allRoutes;
+    private List<Seat> testSeats;
+
+    @BeforeEach
+    void setUp() {
+        // same network as the reference data migration: 50.00 per segment in either direction
+        Location[] locations = Location.values();
+        allRoutes = new ArrayList<>();
+        long id = 1;
+        for (Location from : locations) {
+            for (Location to : locations) {
+                if (from != to) {
+                    int segments = Math.abs(to.ordinal() - from.ordinal());
+                    allRoutes.add(new Route(id++, from, to, new BigDecimal("50.00").multiply(BigDecimal.valueOf(segments))));
+                }
+            }
+        }
+
+        testSeats = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            testSeats.add(new Seat((long) i, i + "A"));
+        }
+    }
+
+    // the catalog reads the routes the way it does while the context starts
+    private ItineraryService itineraryService(List<Route> routes) {
+        when(routeRepository.findAll()).thenReturn(routes);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        RouteCatalog routeCatalog = new RouteCatalog(routeRepository, transactionManager);
+        routeCatalog.afterPropertiesSet();
+        return new ItineraryService(routeCatalog, busLayouts, seatRepository, segmentCapacity);
+    }
+
+    private Reservation createReservation(Long id, Location from, Location to, List<Seat> seats) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setReservationNumber("RES-00" + id);
+        reservation.setFromLocation(from);
+        reservation.setToLocation(to);
+        reservation.setPassengerCount(seats.size());
+        reservation.setSeats(new ArrayList<>(seats));
+        return reservation;
+    }
+
+    private static List<SeatOccupancy> occupancy(Location from, Location to, List<Seat> seats) {
+        return seats.stream().<SeatOccupancy>map(seat -> new SeatOccupancy() {
+            @Override
+            public String getSeatNumber() {
+                return seat.getSeatNumber();
+            }
+
+            @Override
+            public Location getFromLocation() {
+                return from;
+            }
+
+            @Override
+            public Location getToLocation() {
+                return to;
+            }
+        }).toList();
+    }
+
+    @Test
+    void searchItineraries_DirectSoldOut_OffersTransfer() {
+
+        // seats 1-5 taken A -> B and seats 6-10 taken B -> C: no single seat is free all the way A -> C
+        ItineraryService itineraryService = itineraryService(allRoutes);
+        List<SeatOccupancy> occupied = new ArrayList<>(occupancy(Location.A, Location.B, testSeats.subList(0, 5)));
+        occupied.addAll(occupancy(Location.B, Location.C, testSeats.subList(5, 10)));
+        when(seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(occupied);
+
+        ItinerarySearchReport report = itineraryService.searchItineraries(new TicketInquiry(2, Location.A, Location.C));
+
+        assertEquals(1, report.getOptions().size());
+        ItineraryOption option = report.getOptions().get(0);
+        assertEquals(1, option.getTransfers());
+        assertEquals(new BigDecimal("200.00"), option.getTotalPrice());
+        assertEquals(Location.B, option.getLegs().get(0).getDestination());
+        assertEquals(List.of("6A", "7A", "8A", "9A", "10A"), option.getLegs().get(0).getAvailableSeatNumbers());
+        assertEquals(List.of("1A", "2A", "3A", "4A", "5A"), option.getLegs().get(1).getAvailableSeatNumbers());
+    }
+
+    @Test
+    void searchItineraries_RankedByPriceThenTransfers() {
+
+        ItineraryService itineraryService = itineraryService(allRoutes);
+        when(seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(List.of());
+
+        ItinerarySearchReport report = itineraryService.searchItineraries(new TicketInquiry(1, Location.D, Location.A));
+
+        // every journey D -> A costs 150.00, the direct bus comes first; nothing turns back towards D
+        assertEquals(List.of(0, 1, 1, 2), report.getOptions().stream().map(ItineraryOption::getTransfers).toList());
+        assertTrue(report.getOptions().stream().allMatch(option -> option.getTotalPrice().compareTo(new BigDecimal("150.00")) == 0));
+    }
+
+    @Test
+    void searchItineraries_RoutesReadOnceAtStartup() {
+
+        ItineraryService itineraryService = itineraryService(allRoutes);
+        when(seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(List.of());
+
+        itineraryService.searchItineraries(new TicketInquiry(1, Location.A, Location.B));
+        itineraryService.searchItineraries(new TicketInquiry(1, Location.B, Location.D));
+
+        verify(routeRepository, times(1)).findAll();
+    }
+
+    @Test
+    void searchItineraries_NotConnected_RouteNotFoundException() {
+
+        ItineraryService itineraryService = itineraryService(
+                List.of(new Route(1L, Location.A, Location.B, new BigDecimal("50.00"))));
+
+        RouteNotFoundException exception = assertThrows(RouteNotFoundException.class, () ->
+                itineraryService.searchItineraries(new TicketInquiry(1, Location.B, Location.A)));
+
+        assertEquals("No route found from B to A", exception.getMessage());
+        verifyNoInteractions(seatRepository);
+    }
+
+    @Test
+    void searchItineraries_SoldOutLeg_PrunedBeforeSeatRead() {
+
+        // every seat is taken B -> C, so no journey from A to C or D can pass B
+        segmentCapacity.reconcile(Route.DEFAULT_OPERATOR, () -> SeatInventory.load(busLayouts.active(),
+                List.of(createReservation(1L, Location.B, Location.C, testSeats))));
+        ItineraryService itineraryService = itineraryService(allRoutes);
+
+        ItinerarySearchReport report = itineraryService.searchItineraries(new TicketInquiry(1, Location.A, Location.D));
+
+        assertTrue(report.getOptions().isEmpty());
+        verifyNoInteractions(seatRepository);
+    }
+}
@@ -0,0 +1,272 @@
+package com.tharinduDev.bus.reservation.service;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.entity.Seat;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.exception.BookingQueueFullException;
+import com.tharinduDev.bus.reservation.exception.InvalidReservationException;
+import com.tharinduDev.bus.reservation.exception.NoSeatsAvailableException;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.SegmentCapacity;
+import com.tharinduDev.bus.reservation.outbox.ReservationOutbox;
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "reservation.engine.mode=sequencer",
+        "spring.datasource.url=jdbc:h2:mem:sequencer-test"
+})
+public class ReservationSequencerTest {
+
+    @Autowired
+    private ReservationSequencer reservationSequencer;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SegmentCapacityReconciler segmentCapacityReconciler;
+
+    @Autowired
+    private BusLayouts busLayouts;
+
+    @BeforeEach
+    void resetReservations() {
+        jdbcTemplate.update("UPDATE seats SET reservation_id = NULL");
+        jdbcTemplate.update("DELETE FROM reservations");
+        reservationSequencer.reloadInventory().join();
+        segmentCapacityReconciler.reconcile();
+    }
+
+    @Test
+    void reserve_AssignsFirstFreeSeatsAndPersists() {
+        ReservationDetails first = reservationSequencer.reserve(
+                new ReservationInquiry(2, Location.A, Location.C, new BigDecimal("200.00")));
+        // B -> D overlaps A -> C on B-C, so it must get different seats
+        ReservationDetails second = reservationSequencer.reserve(
+                new ReservationInquiry(2, Location.B, Location.D, new BigDecimal("200.00")));
+        // C -> D does not overlap A -> C, so it reuses the first seats
+        ReservationDetails third = reservationSequencer.reserve(
+                new ReservationInquiry(1, Location.C, Location.D, new BigDecimal("50.00")));
+
+        assertEquals(List.of("1A", "1B"), first.getSeatNumbers());
+        assertEquals(List.of("1C", "1D"), second.getSeatNumbers());
+        assertEquals(List.of("1A"), third.getSeatNumbers());
+        assertEquals(new BigDecimal("200.00"), first.getTotalPrice());
+
+        assertEquals(3, reservationRepository.count());
+        Seat seat = seatRepository.findAll().stream().filter(s -> s.getSeatNumber().equals("1C")).findFirst().orElseThrow();
+        assertNotNull(seat.getReservation());
+    }
+
+    @Test
+    void reserve_PriceMismatch_ThrowsOriginalException() {
+        InvalidReservationException exception = assertThrows(InvalidReservationException.class, () ->
+                reservationSequencer.reserve(new ReservationInquiry(2, Location.A, Location.B, new BigDecimal("150.00"))));
+
+        assertEquals("Price confirmation mismatch. Expected: Rs. 100.00, Received: Rs. 150.00", exception.getMessage());
+        assertEquals(0, reservationRepository.count());
+    }
+
+    @Test
+    void submit_ConcurrentClients_NeverOversell() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        List<CompletableFuture<ReservationDetails>> futures = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> reservationSequencer.submit(
+                    new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00"))), clients)
+                    .thenCompose(future -> future));
+        }
+
+        Set<String> bookedSeats = new HashSet<>();
+        int soldOut = 0;
+        for (CompletableFuture<ReservationDetails> future : futures) {
+            try {
+                bookedSeats.addAll(future.join().getSeatNumbers());
+            } catch (CompletionException ex) {
+                assertInstanceOf(NoSeatsAvailableException.class, ex.getCause());
+                soldOut++;
+            }
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(40, bookedSeats.size());
+        assertEquals(20, soldOut);
+        assertEquals(40, reservationRepository.count());
+    }
+
+    @Test
+    void submit_RingStaysFull_RejectedAfterTimeout_ReloadsShared() throws Exception {
+        // a writer stuck in a reload, with a ring of one slot
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch finishReload = new CountDownLatch(1);
+        RouteRepository routes = mock(RouteRepository.class);
+        when(routes.findAll()).thenReturn(List.of()).thenAnswer(invocation -> {
+            reloading.countDown();
+            finishReload.await();
+            return List.of();
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReservationSequencer sequencer = new ReservationSequencer(routes, mock(SeatRepository.class),
+                mock(SeatCatalog.class), mock(ReservationRepository.class), mock(ReservationOutbox.class), mock(ApplicationEventPublisher.class),
+                new SegmentCapacity(), busLayouts, transactionManager, 1, 1, Duration.ofMillis(50));
+        sequencer.start();
+
+        CompletableFuture<Void> runningReload = sequencer.reloadInventory();
+        assertTrue(reloading.await(5, TimeUnit.SECONDS));
+        // both asked while the writer was busy: one reload serves them
+        CompletableFuture<Void> firstQueued = sequencer.reloadInventory();
+        CompletableFuture<Void> secondQueued = sequencer.reloadInventory();
+        assertSame(firstQueued, secondQueued);
+
+        ReservationInquiry sameStop = new ReservationInquiry(1, Location.A, Location.A, new BigDecimal("50.00"));
+        CompletableFuture<ReservationDetails> queued = sequencer.submit(sameStop);
+        CompletionException rejected = assertThrows(CompletionException.class, () -> sequencer.submit(sameStop).join());
+        assertInstanceOf(BookingQueueFullException.class, rejected.getCause());
+
+        finishReload.countDown();
+        runningReload.get(5, TimeUnit.SECONDS);
+        firstQueued.get(5, TimeUnit.SECONDS);
+        CompletionException invalid = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(InvalidReservationException.class, invalid.getCause());
+
+        sequencer.stop();
+        CompletionException stopped = assertThrows(CompletionException.class, () -> sequencer.submit(sameStop).join());
+        assertInstanceOf(IllegalStateException.class, stopped.getCause());
+        assertThrows(CompletionException.class, () -> sequencer.reloadInventory().join());
+    }
+
+    @Test
+    void persist_BatchFails_OtherBookingsPersistedOneByOne() throws Exception {
+        // the writer is held in a reload while two bookings queue up, so both land in one batch
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch finishReload = new CountDownLatch(1);
+        List<Route> routeList = List.of(new Route(1L, Location.A, Location.B, new BigDecimal("50.00")));
+        RouteRepository routes = mock(RouteRepository.class);
+        when(routes.findAll()).thenReturn(routeList).thenAnswer(invocation -> {
+            reloading.countDown();
+            finishReload.await();
+            return routeList;
+        });
+        // seat 1B has gone from the catalog, so the booking that got it cannot be persisted
+        SeatRepository seats = mock(SeatRepository.class);
+        when(seats.findByOperatorIdAndSeatNumberIn(any(), any())).thenAnswer(invocation -> {
+            Collection<String> seatNumbers = invocation.getArgument(1);
+            return seatNumbers.stream().filter(number -> !number.equals("1B"))
+                    .map(number -> new Seat(null, number)).toList();
+        });
+        ReservationRepository reservations = mock(ReservationRepository.class);
+        when(reservations.nextReservationNumberBlock()).thenReturn(7L);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReservationSequencer sequencer = new ReservationSequencer(routes, seats, mock(SeatCatalog.class), reservations,
+                mock(ReservationOutbox.class), mock(ApplicationEventPublisher.class), new SegmentCapacity(), busLayouts,
+                transactionManager, 8, 8, Duration.ofSeconds(1));
+        sequencer.start();
+        try {
+            sequencer.reloadInventory();
+            assertTrue(reloading.await(5, TimeUnit.SECONDS));
+            CompletableFuture<ReservationDetails> first = sequencer.submit(
+                    new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+            CompletableFuture<ReservationDetails> second = sequencer.submit(
+                    new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+            finishReload.countDown();
+
+            ReservationDetails booked = first.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("1A"), booked.getSeatNumbers());
+            // numbers come from the database block, not from a counter that restarts with the process
+            assertTrue(booked.getReservationNumber().endsWith("-" + 7 * ReservationSequencer.RESERVATION_NUMBER_BLOCK),
+                    booked.getReservationNumber());
+            assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            // the batch failed before saving anything; the retry saved the good booking on its own
+            verify(reservations, times(1)).saveAll(argThat(saved -> ((List<?>) saved).size() == 1));
+        } finally {
+            sequencer.stop();
+        }
+    }
+
+    @Test
+    void cancellation_ReleasesSeatsInSequencerInventory() {
+        ReservationDetails fullBus = reservationSequencer.reserve(
+                new ReservationInquiry(40, Location.A, Location.B, new BigDecimal("2000.00")));
+
+        reservationService.cancelReservation(fullBus.getReservationNumber());
+
+        ReservationDetails rebooked = reservationSequencer.reserve(
+                new ReservationInquiry(40, Location.A, Location.B, new BigDecimal("2000.00")));
+        assertEquals(40, rebooked.getSeatNumbers().size());
+    }
+
+    @Test
+    void reserve_SecondOperatorOnTheSamePair_BookedAtItsOwnPrice() {
+        jdbcTemplate.update("INSERT INTO routes (from_location, to_location, price, operator_id) VALUES ('A', 'B', 80.00, 'night')");
+        try {
+            reservationSequencer.reloadInventory().join();
+
+            ReservationInquiry night = new ReservationInquiry(2, Location.A, Location.B, new BigDecimal("160.00"));
+            night.setOperatorId("night");
+            ReservationDetails nightBooking = reservationSequencer.reserve(night);
+            ReservationDetails defaultBooking = reservationSequencer.reserve(
+                    new ReservationInquiry(2, Location.A, Location.B, new BigDecimal("100.00")));
+
+            assertEquals(new BigDecimal("160.00"), nightBooking.getTotalPrice());
+            assertEquals(new BigDecimal("100.00"), defaultBooking.getTotalPrice());
+            // each operator runs its own bus, so both get the same seats
+            assertEquals(nightBooking.getSeatNumbers(), defaultBooking.getSeatNumbers());
+            assertEquals("night", reservationRepository.findOperatorIdByReservationNumber(
+                    nightBooking.getReservationNumber()).orElseThrow());
+
+            ReservationInquiry unknown = new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00"));
+            unknown.setOperatorId("nobody");
+            CompletionException notFound = assertThrows(CompletionException.class, () -> reservationSequencer.submit(unknown).join());
+            assertEquals("No route found from A to B for operator nobody", notFound.getCause().getMessage());
+        } finally {
+            jdbcTemplate.update("DELETE FROM routes WHERE operator_id = 'night'");
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.tharinduDev.bus.reservation.service;
 
 import com.tharinduDev.bus.reservation.dto.AvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.AvailabilitySearchReport;
+import com.tharinduDev.bus.reservation.dto.AvailabilitySearchRequest;
+import com.tharinduDev.bus.reservation.dto.CompactAvailabilityReport;
+import com.tharinduDev.bus.reservation.dto.DestinationAvailability;
 import com.tharinduDev.bus.reservation.dto.ReservationDetails;
 import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
 import com.tharinduDev.bus.reservation.dto.TicketInquiry;
@@ -10,20 +14,31 @@ import com.tharinduDev.bus.reservation.entity.Seat;
 import com.tharinduDev.bus.reservation.enums.Location;
 import com.tharinduDev.bus.reservation.exception.InvalidReservationException;
 import com.tharinduDev.bus.reservation.exception.NoSeatsAvailableException;
+import com.tharinduDev.bus.reservation.exception.ReservationNotFoundException;
 import com.tharinduDev.bus.reservation.exception.RouteNotFoundException;
+import com.tharinduDev.bus.reservation.inventory.BusLayouts;
+import com.tharinduDev.bus.reservation.inventory.FleetProperties;
+import com.tharinduDev.bus.reservation.inventory.SeatInventory;
+import com.tharinduDev.bus.reservation.inventory.SeatsReleasedEvent;
+import com.tharinduDev.bus.reservation.inventory.SegmentCapacity;
+import com.tharinduDev.bus.reservation.outbox.ReservationOutbox;
 import com.tharinduDev.bus.reservation.repository.ReservationRepository;
-import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import com.tharinduDev.bus.reservation.repository.SeatOccupancy;
 import com.tharinduDev.bus.reservation.repository.SeatRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -33,7 +48,7 @@ import static org.mockito.Mockito.*;
 public class ReservationServiceTest {
 
     @Mock
-    private RouteRepository routeRepository;
+    private RouteCatalog routeCatalog;
 
     @Mock
     private SeatRepository seatRepository;
@@ -41,6 +56,21 @@ public class ReservationServiceTest {
     @Mock
     private ReservationRepository reservationRepository;
 
+    @Mock
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // not reconciled, so it never rejects unless a test loads it
+    @Spy
+    private SegmentCapacity segmentCapacity = new SegmentCapacity();
+
+    // one column of ten seats, 1A .. 10A like testSeats
+    @Spy
+    private BusLayouts busLayouts = new BusLayouts(new FleetProperties("test",
+            Map.of("test", new FleetProperties.Layout(10, "A", "", 0))));
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -61,6 +91,25 @@ public class ReservationServiceTest {
         }
     }
 
+    private static SeatOccupancy occupancy(String seatNumber, Location from, Location to) {
+        return new SeatOccupancy() {
+            @Override
+            public String getSeatNumber() {
+                return seatNumber;
+            }
+
+            @Override
+            public Location getFromLocation() {
+                return from;
+            }
+
+            @Override
+            public Location getToLocation() {
+                return to;
+            }
+        };
+    }
+
     private Reservation createReservation(Long id, String resNumber, Location from, Location to, Seat... seats) {
         Reservation reservation = new Reservation();
         reservation.setId(id);
@@ -86,9 +135,10 @@ public class ReservationServiceTest {
     void checkAvailability_ForwardTrip_Success() {
 
         TicketInquiry request = new TicketInquiry(2, Location.A, Location.B);
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(testSeats);
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(testSeats);
 
         AvailabilityReport response = reservationService.checkAvailability(request);
 
@@ -100,8 +150,8 @@ public class ReservationServiceTest {
         assertTrue(response.getAvailableSeatNumbers().contains("1A"));
         assertTrue(response.getAvailableSeatNumbers().contains("10A"));
 
-        verify(routeRepository).findByFromLocationAndToLocation(Location.A, Location.B);
-        verify(seatRepository).findAll();
+        verify(routeCatalog).route(Route.DEFAULT_OPERATOR, Location.A, Location.B);
+        verify(seatRepository).findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection());
     }
 
     // partial availability when some seats are booked in forward direction
@@ -112,9 +162,10 @@ public class ReservationServiceTest {
         TicketInquiry request = new TicketInquiry(2, Location.A, Location.B);
         List<Seat> availableSeats = testSeats.subList(0, 6);
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(availableSeats);
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(availableSeats);
 
         AvailabilityReport response = reservationService.checkAvailability(request);
 
@@ -127,9 +178,10 @@ public class ReservationServiceTest {
     void checkAvailability_ForwardTrip_NoSeatsAvailable() {
 
         TicketInquiry request = new TicketInquiry(2, Location.A, Location.B);
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(Collections.emptyList());
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(Collections.emptyList());
 
         AvailabilityReport response = reservationService.checkAvailability(request);
 
@@ -141,9 +193,10 @@ public class ReservationServiceTest {
     void checkAvailability_ReturnTrip_Success() {
 
         TicketInquiry request = new TicketInquiry(2, Location.B, Location.A);
-        when(routeRepository.findByFromLocationAndToLocation(Location.B, Location.A))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.B, Location.A))
                 .thenReturn(Optional.of(returnRoute));
-        when(seatRepository.findAll()).thenReturn(testSeats);
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(testSeats);
 
         AvailabilityReport response = reservationService.checkAvailability(request);
 
@@ -154,8 +207,8 @@ public class ReservationServiceTest {
         assertTrue(response.getAvailableSeatNumbers().contains("1A"));
         assertTrue(response.getAvailableSeatNumbers().contains("10A"));
 
-        verify(routeRepository).findByFromLocationAndToLocation(Location.B, Location.A);
-        verify(seatRepository).findAll();
+        verify(routeCatalog).route(Route.DEFAULT_OPERATOR, Location.B, Location.A);
+        verify(seatRepository).findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection());
     }
 
     // partial availability when some seats are booked in return direction
@@ -165,9 +218,10 @@ public class ReservationServiceTest {
         TicketInquiry request = new TicketInquiry(2, Location.B, Location.A);
         List<Seat> availableSeats = testSeats.subList(0, 6);
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.B, Location.A))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.B, Location.A))
                 .thenReturn(Optional.of(returnRoute));
-        when(seatRepository.findAll()).thenReturn(availableSeats);
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(availableSeats);
 
         AvailabilityReport response = reservationService.checkAvailability(request);
 
@@ -180,9 +234,10 @@ public class ReservationServiceTest {
     void checkAvailability_ReturnTrip_NoSeatsAvailable() {
 
         TicketInquiry request = new TicketInquiry(2, Location.B, Location.A);
-        when(routeRepository.findByFromLocationAndToLocation(Location.B, Location.A))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.B, Location.A))
                 .thenReturn(Optional.of(returnRoute));
-        when(seatRepository.findAll()).thenReturn(Collections.emptyList());
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(Collections.emptyList());
 
         AvailabilityReport response = reservationService.checkAvailability(request);
 
@@ -190,6 +245,91 @@ public class ReservationServiceTest {
         assertEquals(0, response.getAvailableSeatNumbers().size());
     }
 
+    @Test
+    void checkAvailabilityCompact_PacksAvailableSeatsIntoBitmap() {
+
+        TicketInquiry request = new TicketInquiry(2, Location.A, Location.B);
+        // 1A and 3A are taken on an overlapping forward journey
+        Reservation existingReservation = createReservation(1L, "RES-001", Location.A, Location.C,
+                testSeats.get(0), testSeats.get(2));
+
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
+                .thenReturn(Optional.of(forwardRoute));
+        // the database returns seats in no particular order, the bitmap still follows the layout
+        List<Seat> unorderedSeats = new ArrayList<>(testSeats);
+        Collections.reverse(unorderedSeats);
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(unorderedSeats);
+        when(reservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn(eq(Route.DEFAULT_OPERATOR), any(), any()))
+                .thenReturn(List.of(existingReservation));
+
+        CompactAvailabilityReport response = reservationService.checkAvailabilityCompact(request);
+
+        assertEquals(8, response.getAvailableSeats());
+        assertEquals(10, response.getTotalSeats());
+        assertEquals("test", response.getLayout());
+        assertEquals(new BigDecimal("100.00"), response.getTotalPrice());
+
+        BitSet bitmap = BitSet.valueOf(response.getAvailableSeatBitmap());
+        assertEquals(8, bitmap.cardinality());
+        assertFalse(bitmap.get(0));
+        assertTrue(bitmap.get(1));
+        assertFalse(bitmap.get(2));
+        assertTrue(bitmap.get(9));
+    }
+
+    // -- searchAvailability Tests --
+
+    @Test
+    void searchAvailability_AllDestinationsFromOneSnapshot() {
+
+        AvailabilitySearchRequest request = new AvailabilitySearchRequest(2, Location.B);
+        Route toA = new Route(3L, Location.B, Location.A, new BigDecimal("50.00"));
+        Route toC = new Route(4L, Location.B, Location.C, new BigDecimal("50.00"));
+        Route toD = new Route(5L, Location.B, Location.D, new BigDecimal("100.00"));
+        // 1A and 2A booked A -> C: blocks B -> C and B -> D, but not the return trip B -> A
+        when(routeCatalog.departures(Route.DEFAULT_OPERATOR, Location.B)).thenReturn(List.of(toD, toA, toC));
+        when(seatRepository.findOccupancyByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(List.of(
+                occupancy("1A", Location.A, Location.C), occupancy("2A", Location.A, Location.C)));
+
+        AvailabilitySearchReport response = reservationService.searchAvailability(request);
+
+        assertEquals(Location.B, response.getOrigin());
+        assertEquals(List.of(Location.A, Location.C, Location.D),
+                response.getDestinations().stream().map(DestinationAvailability::getDestination).toList());
+
+        DestinationAvailability returnTrip = response.getDestinations().get(0);
+        assertEquals(10, returnTrip.getAvailableSeats());
+        assertEquals(new BigDecimal("100.00"), returnTrip.getTotalPrice());
+
+        DestinationAvailability toDestinationD = response.getDestinations().get(2);
+        assertEquals(8, toDestinationD.getAvailableSeats());
+        assertFalse(toDestinationD.getAvailableSeatNumbers().contains("1A"));
+        assertEquals(new BigDecimal("200.00"), toDestinationD.getTotalPrice());
+
+        // seats come from the bus layout, occupied seats are read once for all destinations
+        verify(seatRepository, times(1))
+                .findOccupancyByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection());
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void searchAvailability_AllDestinationsSoldOut_AnsweredFromCounters() {
+        // all 10 seats are booked A -> D, every forward segment is sold out
+        Reservation fullBus = createReservation(1L, "RES-001", Location.A, Location.D, testSeats.toArray(new Seat[0]));
+        segmentCapacity.reconcile(Route.DEFAULT_OPERATOR, () -> SeatInventory.load(busLayouts.active(), List.of(fullBus)));
+        Route toC = new Route(4L, Location.B, Location.C, new BigDecimal("50.00"));
+        Route toD = new Route(5L, Location.B, Location.D, new BigDecimal("100.00"));
+        when(routeCatalog.departures(Route.DEFAULT_OPERATOR, Location.B)).thenReturn(List.of(toC, toD));
+
+        AvailabilitySearchReport response = reservationService.searchAvailability(new AvailabilitySearchRequest(2, Location.B));
+
+        assertEquals(2, response.getDestinations().size());
+        assertTrue(response.getDestinations().stream().allMatch(destination -> destination.getAvailableSeats() == 0));
+        verifyNoInteractions(seatRepository, reservationRepository);
+    }
+
     @Test
     void check_InvalidReservationException_SameOriginDestinationException() {
 
@@ -201,22 +341,22 @@ public class ReservationServiceTest {
 
         assertEquals("Origin and destination cannot be the same", exception.getMessage());
         // only hit the initial validation, no repository interactions
-        verifyNoInteractions(routeRepository, seatRepository, reservationRepository);
+        verifyNoInteractions(routeCatalog, seatRepository, reservationRepository);
     }
 
     @Test
     void check_RouteNotFoundException() {
 
         TicketInquiry request = new TicketInquiry(1, Location.A, Location.B);
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B)).thenReturn(Optional.empty());
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B)).thenReturn(Optional.empty());
 
         RouteNotFoundException exception = assertThrows(RouteNotFoundException.class, () ->
                 reservationService.checkAvailability(request)
         );
 
         assertEquals("No route found from " + request.getOrigin() + " to " + request.getDestination(), exception.getMessage());
-        // only route repository should be called
-        verify(routeRepository).findByFromLocationAndToLocation(Location.A, Location.B);
+        // only the route catalog should be asked
+        verify(routeCatalog).route(Route.DEFAULT_OPERATOR, Location.A, Location.B);
         verifyNoInteractions(seatRepository, reservationRepository);
     }
 
@@ -229,10 +369,12 @@ public class ReservationServiceTest {
 
         ReservationInquiry request = new ReservationInquiry(2, Location.A, Location.B, new BigDecimal("100.00"));
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(testSeats);
-        when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(testSeats);
+        when(reservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn(eq(Route.DEFAULT_OPERATOR), any(), any()))
+                .thenReturn(Collections.emptyList());
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(response -> {
                     Reservation res = response.getArgument(0);
@@ -251,6 +393,7 @@ public class ReservationServiceTest {
         assertEquals(new BigDecimal("100.00"), response.getTotalPrice());
 
         verify(reservationRepository).save(any(Reservation.class));
+        verify(reservationOutbox).reservationCreated(response);
 
     }
 
@@ -264,10 +407,13 @@ public class ReservationServiceTest {
         Seat bookedSeat2 = testSeats.get(1); // 2A
         Reservation existingReservation = createReservation(1L, "RES-001", Location.A, Location.C, bookedSeat1, bookedSeat2);
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(testSeats);
-        when(reservationRepository.findAll()).thenReturn(List.of(existingReservation));
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(testSeats);
+        // only journeys boarding before B and alighting after A can compete with A -> B
+        when(reservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn(Route.DEFAULT_OPERATOR, List.of(Location.A),
+                List.of(Location.B, Location.C, Location.D))).thenReturn(List.of(existingReservation));
         when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
             Reservation res = invocation.getArgument(0);
             res.setId(2L);
@@ -293,10 +439,12 @@ public class ReservationServiceTest {
         Seat bookedSeat2 = testSeats.get(1); // 2A
         Reservation existingReservation = createReservation(1L, "RES-001", Location.B, Location.C, bookedSeat1, bookedSeat2);
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(testSeats);
-        when(reservationRepository.findAll()).thenReturn(List.of(existingReservation));
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(testSeats);
+        when(reservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn(eq(Route.DEFAULT_OPERATOR), any(), any()))
+                .thenReturn(List.of(existingReservation));
         when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
             Reservation res = invocation.getArgument(0);
             res.setId(2L);
@@ -316,10 +464,12 @@ public class ReservationServiceTest {
 
         ReservationInquiry request = new ReservationInquiry(2, Location.B, Location.A, new BigDecimal("100.00"));
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.B, Location.A))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.B, Location.A))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(testSeats);
-        when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(testSeats);
+        when(reservationRepository.findByOperatorIdAndFromLocationInAndToLocationIn(eq(Route.DEFAULT_OPERATOR), any(), any()))
+                .thenReturn(Collections.emptyList());
         when(reservationRepository.save(any(Reservation.class)))
                 .thenAnswer(response -> {
                     Reservation res = response.getArgument(0);
@@ -346,7 +496,7 @@ public class ReservationServiceTest {
         // adding incorrect price
         ReservationInquiry request = new ReservationInquiry(2, Location.A, Location.B, new BigDecimal("150.00"));
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
 
         InvalidReservationException exception = assertThrows(InvalidReservationException.class,
@@ -362,15 +512,83 @@ public class ReservationServiceTest {
 
         List<Seat> limitedSeats = testSeats.subList(0, 5);
 
-        when(routeRepository.findByFromLocationAndToLocation(Location.A, Location.B))
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
                 .thenReturn(Optional.of(forwardRoute));
-        when(seatRepository.findAll()).thenReturn(limitedSeats);
+        when(seatRepository.findByOperatorIdAndSeatNumberIn(eq(Route.DEFAULT_OPERATOR), anyCollection()))
+                .thenReturn(limitedSeats);
 
         NoSeatsAvailableException exception = assertThrows(NoSeatsAvailableException.class,
                 () -> reservationService.reserveTickets(request));
         assertEquals("Not enough seats available. Requested: 10, Available: 5", exception.getMessage());
 
         verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(reservationOutbox);
     }
 
+    @Test
+    void reserveTickets_SoldOutSegment_RejectedBeforeDatabaseWork() {
+        // all 10 seats are booked A -> C, so A -> B and B -> C are sold out
+        Reservation fullBus = createReservation(1L, "RES-001", Location.A, Location.C, testSeats.toArray(new Seat[0]));
+        segmentCapacity.reconcile(Route.DEFAULT_OPERATOR, () -> SeatInventory.load(busLayouts.active(), List.of(fullBus)));
+
+        ReservationInquiry request = new ReservationInquiry(1, Location.B, Location.D, new BigDecimal("100.00"));
+
+        NoSeatsAvailableException exception = assertThrows(NoSeatsAvailableException.class,
+                () -> reservationService.reserveTickets(request));
+        assertEquals("Not enough seats available. Requested: 1, Available: 0", exception.getMessage());
+
+        verifyNoInteractions(routeCatalog, seatRepository, reservationRepository, reservationOutbox);
+    }
+
+    @Test
+    void checkAvailability_SoldOutSegment_NoRepositoryInteraction() {
+        Reservation fullBus = createReservation(1L, "RES-001", Location.A, Location.C, testSeats.toArray(new Seat[0]));
+        segmentCapacity.reconcile(Route.DEFAULT_OPERATOR, () -> SeatInventory.load(busLayouts.active(), List.of(fullBus)));
+        when(routeCatalog.route(Route.DEFAULT_OPERATOR, Location.A, Location.B))
+                .thenReturn(Optional.of(forwardRoute));
+
+        AvailabilityReport response = reservationService.checkAvailability(new TicketInquiry(2, Location.A, Location.B));
+        CompactAvailabilityReport compact = reservationService.checkAvailabilityCompact(new TicketInquiry(2, Location.A, Location.B));
+
+        assertEquals(0, response.getAvailableSeats());
+        assertEquals(new BigDecimal("100.00"), response.getTotalPrice());
+        assertTrue(response.getAvailableSeatNumbers().isEmpty());
+        assertEquals(0, compact.getAvailableSeats());
+        assertEquals(new BigDecimal("100.00"), compact.getTotalPrice());
+        // the price comes from the in-memory route catalog, the answer from the counters
+        verifyNoInteractions(seatRepository, reservationRepository, reservationOutbox);
+    }
+
+    // -- cancelReservation Tests --
+
+    @Test
+    void cancelReservation_ReleasesSeatsAndPublishesEvent() {
+
+        Reservation reservation = createReservation(1L, "RES-001", Location.A, Location.C,
+                testSeats.get(0), testSeats.get(1));
+        when(reservationRepository.findByReservationNumber("RES-001")).thenReturn(Optional.of(reservation));
+
+        ReservationDetails response = reservationService.cancelReservation("RES-001");
+
+        assertEquals(List.of("1A", "2A"), response.getSeatNumbers());
+        assertNull(testSeats.get(0).getReservation());
+        assertTrue(reservation.getSeats().isEmpty());
+        verify(reservationRepository).delete(reservation);
+        verify(reservationOutbox).reservationCancelled(response);
+        verify(eventPublisher).publishEvent(
+                new SeatsReleasedEvent("RES-001", Route.DEFAULT_OPERATOR, Location.A, Location.C, List.of("1A", "2A")));
+    }
+
+    @Test
+    void cancelReservation_ReservationNotFoundException() {
+
+        when(reservationRepository.findByReservationNumber("RES-404")).thenReturn(Optional.empty());
+
+        ReservationNotFoundException exception = assertThrows(ReservationNotFoundException.class, () ->
+                reservationService.cancelReservation("RES-404"));
+
+        assertEquals("Reservation not found: RES-404", exception.getMessage());
+        verify(reservationRepository, never()).delete(any());
+        verifyNoInteractions(reservationOutbox, eventPublisher);
+    }
 }
@@ -0,0 +1,40 @@
+package com.tharinduDev.bus.reservation.startup;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import com.tharinduDev.bus.reservation.service.ReservationSequencer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// in sequencer mode the warm-up books through the sequencer, which must give every seat back
+@SpringBootTest(properties = {
+        "reservation.engine.mode=sequencer",
+        "spring.datasource.url=jdbc:h2:mem:fast-start-sequencer-test",
+        "reservation.warmup.iterations=2"
+})
+@ActiveProfiles("fast-start")
+public class InventoryWarmupSequencerTest {
+
+    @Autowired
+    private ReservationSequencer reservationSequencer;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void warmup_LeavesSequencerInventoryAndDatabaseUntouched() {
+        assertEquals(0, reservationRepository.count());
+
+        ReservationDetails details = reservationSequencer.reserve(
+                new ReservationInquiry(40, Location.A, Location.D, new BigDecimal("6000.00")));
+        assertEquals(40, details.getSeatNumbers().size());
+    }
+}
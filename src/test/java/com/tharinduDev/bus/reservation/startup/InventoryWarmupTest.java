@@ -0,0 +1,44 @@
+package com.tharinduDev.bus.reservation.startup;
+
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import com.tharinduDev.bus.reservation.repository.RouteRepository;
+import com.tharinduDev.bus.reservation.repository.SeatRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fast-start-test",
+        "reservation.warmup.iterations=2"
+})
+@ActiveProfiles("fast-start")
+public class InventoryWarmupTest {
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void fastStartProfile_UsesMigratedSchemaAndLeavesNoWarmupBookings() {
+        // the migrated schema passed ddl-auto=validate and holds the reference data
+        assertEquals(12, routeRepository.count());
+        assertEquals(40, seatRepository.count());
+
+        // warm-up bookings are always rolled back
+        assertEquals(0, reservationRepository.count());
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, applicationAvailability.getReadinessState());
+    }
+}
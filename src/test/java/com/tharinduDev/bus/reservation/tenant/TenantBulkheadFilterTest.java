@@ -0,0 +1,234 @@
+package com.tharinduDev.bus.reservation.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tharinduDev.bus.reservation.entity.Route;
+import com.tharinduDev.bus.reservation.repository.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class TenantBulkheadFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+
+    private final OperatorResolver operatorResolver = new OperatorResolver(reservationRepository, new ObjectMapper());
+
+    @Test
+    void saturatedOperator_Gets429_OtherOperatorsUnaffected() throws Exception {
+        TenantBulkheads bulkheads = new TenantBulkheads(new TenancyProperties(true, 32, limits(1, 0),
+                Map.of("busy", limits(1, 0), "quiet", limits(1, 0))));
+        TenantBulkheadFilter filter = new TenantBulkheadFilter(bulkheads, operatorResolver, meterRegistry);
+
+        // hold busy's only slot while more requests arrive; the controller still gets the whole body
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[3];
+        String[] forwardedBody = new String[1];
+        FilterChain slowChain = (request, response) -> {
+            forwardedBody[0] = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            nested[0] = perform(filter, "busy");
+            nested[1] = perform(filter, "quiet");
+            nested[2] = perform(filter, "unknown-operator");
+        };
+        filter.doFilter(reserve("busy"), new MockHttpServletResponse(), slowChain);
+
+        assertEquals(body("busy"), forwardedBody[0]);
+
+        assertEquals(429, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader("Retry-After"));
+        assertTrue(nested[0].getContentAsString().contains("Operator is at capacity"));
+        assertEquals(200, nested[1].getStatus());
+        assertEquals(200, nested[2].getStatus());
+
+        assertEquals(1.0, meterRegistry.get("reservation.tenant.rejected").tag("operator", "busy").counter().count());
+        assertEquals(0.0, meterRegistry.get("reservation.tenant.rejected").tag("operator", "quiet").counter().count());
+        assertEquals(1, meterRegistry.get("reservation.tenant.requests").tag("operator", "busy").timer().count());
+        assertEquals(1, meterRegistry.get("reservation.tenant.requests").tag("operator", "shared").timer().count());
+        assertEquals(0.0, meterRegistry.get("reservation.tenant.bulkhead.in-flight").tag("operator", "busy").gauge().value());
+    }
+
+    @Test
+    void operatorResolver_OperatorFromRouteOrReservation_NeverFromHeader() throws Exception {
+        when(reservationRepository.findOperatorIdByReservationNumber("RES-1")).thenReturn(Optional.of("quiet"));
+
+        MockHttpServletRequest spoofed = reserve("busy");
+        spoofed.addHeader("X-Operator-Id", "quiet");
+        assertEquals("busy", operatorResolver.operatorOf(operatorResolver.readable(spoofed)));
+
+        MockHttpServletRequest unnamed = new MockHttpServletRequest("POST", "/api/v1/reservations/reserve");
+        unnamed.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        unnamed.setContent("{\"passengerCount\":1,\"origin\":\"A\",\"destination\":\"B\"}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Route.DEFAULT_OPERATOR, operatorResolver.operatorOf(operatorResolver.readable(unnamed)));
+
+        MockHttpServletRequest availability = new MockHttpServletRequest("GET", "/api/v1/availability");
+        availability.setParameter("origin", "A");
+        availability.setParameter("operatorId", "quiet");
+        assertEquals("quiet", operatorResolver.operatorOf(availability));
+
+        assertEquals("quiet", operatorResolver.operatorOf(new MockHttpServletRequest("DELETE", "/api/v1/reservations/RES-1")));
+
+        // neither a route nor a reservation: shared
+        assertNull(operatorResolver.operatorOf(new MockHttpServletRequest("GET", "/api/v1/layouts/standard-40/seats")));
+        MockHttpServletRequest malformed = new MockHttpServletRequest("POST", "/api/v1/reservations/reserve");
+        malformed.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        malformed.setContent("{\"operatorId\":".getBytes(StandardCharsets.UTF_8));
+        assertNull(operatorResolver.operatorOf(operatorResolver.readable(malformed)));
+    }
+
+    @Test
+    void cancellation_OperatorLookedUpInsideSharedBulkhead() throws Exception {
+        when(reservationRepository.findOperatorIdByReservationNumber("RES-1")).thenReturn(Optional.of("quiet"));
+        TenantBulkheads bulkheads = new TenantBulkheads(new TenancyProperties(true, 32, limits(1, 0),
+                Map.of("quiet", limits(1, 0))));
+        TenantBulkheadFilter filter = new TenantBulkheadFilter(bulkheads, operatorResolver, meterRegistry);
+
+        // while a request without an operator holds the only shared slot, a cancellation cannot even look up
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/layouts/standard-40/seats"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    nested[0] = new MockHttpServletResponse();
+                    filter.doFilter(new MockHttpServletRequest("DELETE", "/api/v1/reservations/RES-1"), nested[0],
+                            new MockFilterChain());
+                });
+
+        assertEquals(429, nested[0].getStatus());
+        verifyNoInteractions(reservationRepository);
+
+        // once the shared slot is free the lookup runs there and the cancellation runs for its operator
+        MockHttpServletResponse cancelled = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/v1/reservations/RES-1"), cancelled,
+                new MockFilterChain());
+
+        assertEquals(200, cancelled.getStatus());
+        assertEquals(1, meterRegistry.get("reservation.tenant.requests").tag("operator", "quiet").timer().count());
+        assertEquals(1.0, meterRegistry.get("reservation.tenant.rejected").tag("operator", "shared").counter().count());
+        assertEquals(0.0, meterRegistry.get("reservation.tenant.bulkhead.in-flight").tag("operator", "shared").gauge().value());
+    }
+
+    @Test
+    void replayableRequest_ReadListener_GetsTheReplayedBodyThenAllDataRead() throws Exception {
+        ServletInputStream input = operatorResolver.readable(reserve("busy")).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> callbacks = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                callbacks.add("onDataAvailable");
+                byte[] buffer = new byte[16];
+                int count;
+                while (input.isReady() && (count = input.read(buffer)) != -1) {
+                    read.write(buffer, 0, count);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                callbacks.add("onAllDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                callbacks.add("onError");
+            }
+        });
+
+        assertEquals(List.of("onDataAvailable", "onAllDataRead"), callbacks);
+        assertEquals(body("busy"), read.toString(StandardCharsets.UTF_8));
+        assertTrue(input.isFinished());
+    }
+
+    @Test
+    void tenantBulkheads_MoreOperatorsThanTheCap_RejectedAtStartup() {
+        TenancyProperties properties = new TenancyProperties(true, 1, limits(1, 0),
+                Map.of("busy", limits(1, 0), "quiet", limits(1, 0)));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new TenantBulkheads(properties));
+
+        assertTrue(exception.getMessage().contains("max-operators"));
+    }
+
+    @Test
+    void bulkhead_QueuedRequestAdmittedWhenSlotFrees() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("operator", 1, 1, TimeUnit.SECONDS.toNanos(5));
+        assertTrue(bulkhead.tryEnter());
+        assertEquals(1.0, bulkhead.getSaturation());
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> enter(bulkhead));
+        while (bulkhead.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // the queue holds one, so a third request is turned away without waiting
+        assertFalse(bulkhead.tryEnter());
+
+        bulkhead.exit();
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.getQueued());
+        bulkhead.exit();
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    void bulkhead_QueuedRequestGivesUpAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("operator", 1, 1, TimeUnit.MILLISECONDS.toNanos(10));
+        assertTrue(bulkhead.tryEnter());
+
+        assertFalse(bulkhead.tryEnter());
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    private static TenancyProperties.Limits limits(int maxConcurrent, int maxQueued) {
+        return new TenancyProperties.Limits(maxConcurrent, maxQueued, Duration.ofMillis(10));
+    }
+
+    private static boolean enter(Bulkhead bulkhead) {
+        try {
+            return bulkhead.tryEnter();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String body(String operatorId) {
+        return "{\"passengerCount\":1,\"origin\":\"A\",\"destination\":\"B\",\"operatorId\":\"" + operatorId + "\"}";
+    }
+
+    private static MockHttpServletRequest reserve(String operatorId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/reservations/reserve");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body(operatorId).getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletResponse perform(TenantBulkheadFilter filter, String operatorId)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(reserve(operatorId), response, new MockFilterChain());
+        return response;
+    }
+}
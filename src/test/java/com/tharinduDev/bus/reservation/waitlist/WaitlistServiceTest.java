@@ -0,0 +1,86 @@
+package com.tharinduDev.bus.reservation.waitlist;
+
+import com.tharinduDev.bus.reservation.dto.ReservationDetails;
+import com.tharinduDev.bus.reservation.dto.ReservationInquiry;
+import com.tharinduDev.bus.reservation.dto.WaitlistDetails;
+import com.tharinduDev.bus.reservation.enums.Location;
+import com.tharinduDev.bus.reservation.enums.WaitlistStatus;
+import com.tharinduDev.bus.reservation.exception.ReservationNotFoundException;
+import com.tharinduDev.bus.reservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:waitlist-test",
+        "reservation.waitlist.retained-results=4"
+})
+public class WaitlistServiceTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void cancellation_AllocatesEarliestFittingWaitlistEntries() throws InterruptedException {
+        // the whole bus is booked A -> B
+        ReservationDetails fullBus = reservationService.reserveTickets(
+                new ReservationInquiry(40, Location.A, Location.B, new BigDecimal("2000.00")));
+
+        WaitlistDetails first = waitlistService.join(new ReservationInquiry(2, Location.A, Location.C, new BigDecimal("200.00")));
+        WaitlistDetails wholeBus = waitlistService.join(new ReservationInquiry(40, Location.A, Location.B, new BigDecimal("2000.00")));
+        WaitlistDetails single = waitlistService.join(new ReservationInquiry(1, Location.A, Location.B, new BigDecimal("50.00")));
+        // C -> D does not touch the booked segment and is booked right away
+        WaitlistDetails immediate = waitlistService.join(new ReservationInquiry(1, Location.C, Location.D, new BigDecimal("50.00")));
+
+        assertEquals(WaitlistStatus.WAITING, first.getStatus());
+        assertEquals(WaitlistStatus.WAITING, wholeBus.getStatus());
+        assertEquals(WaitlistStatus.WAITING, single.getStatus());
+        assertEquals(WaitlistStatus.ALLOCATED, immediate.getStatus());
+
+        reservationService.cancelReservation(fullBus.getReservationNumber());
+
+        WaitlistDetails firstAllocated = awaitStatus(first.getWaitlistId(), WaitlistStatus.ALLOCATED);
+        WaitlistDetails singleAllocated = awaitStatus(single.getWaitlistId(), WaitlistStatus.ALLOCATED);
+
+        // the 40 passenger request cannot fit once the first entry took two seats, but does not block the single one
+        assertEquals(2, firstAllocated.getReservation().getSeatNumbers().size());
+        assertEquals(1, singleAllocated.getReservation().getSeatNumbers().size());
+        assertEquals(WaitlistStatus.WAITING, waitlistService.getEntry(wholeBus.getWaitlistId()).getStatus());
+        // allocated entries left the waiting map, only the 40 passenger request is still in it
+        assertEquals(1, waitlistService.waitingCount());
+    }
+
+    @Test
+    void finishedEntries_KeepOnlyTheLatestResults() {
+        List<WaitlistDetails> booked = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            booked.add(waitlistService.join(new ReservationInquiry(1, Location.B, Location.C, new BigDecimal("50.00"))));
+        }
+
+        // five results with room for four: the oldest is dropped, the others can still be read
+        assertThrows(ReservationNotFoundException.class, () -> waitlistService.getEntry(booked.get(0).getWaitlistId()));
+        for (WaitlistDetails details : booked.subList(1, 5)) {
+            assertEquals(WaitlistStatus.ALLOCATED, waitlistService.getEntry(details.getWaitlistId()).getStatus());
+        }
+    }
+
+    private WaitlistDetails awaitStatus(String waitlistId, WaitlistStatus expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        WaitlistDetails details = waitlistService.getEntry(waitlistId);
+        while (details.getStatus() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            details = waitlistService.getEntry(waitlistId);
+        }
+        assertEquals(expected, details.getStatus());
+        return details;
+    }
+}